@@ -0,0 +1,20 @@
+package com.yida.lucene.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 紧凑存储，所有store=true的字段编码为一个二进制的_source存储字段，读取时一次解码<br/>
+ * 各字段仍然正常建立索引，适合字段较多的实体；已有索引开启后需要重建
+ *
+ * @author yida
+ * @date 2024/10/15 16:40
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CompactSource {
+}
@@ -0,0 +1,31 @@
+package com.yida.lucene.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 索引排序，段内文档按该字段排序存储<br/>
+ * 查询的排序是索引排序的前缀时，收集到足够的结果即可提前结束，只支持DATE、LONG、INT、DOUBLE、FLOAT、KEYWORD类型，索引创建后不能修改
+ *
+ * @author yida
+ * @date 2024/10/13 10:26
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface IndexSort {
+
+	/**
+	 * 多个字段时的排序优先级，越小越优先
+	 */
+	int order() default 0;
+
+	/**
+	 * 是否倒序
+	 */
+	boolean reverse() default false;
+
+}
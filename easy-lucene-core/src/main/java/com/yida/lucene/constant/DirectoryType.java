@@ -0,0 +1,39 @@
+package com.yida.lucene.constant;
+
+/**
+ * 索引目录类型
+ *
+ * @author yida
+ * @date 2024/10/12 10:05
+ * @see com.yida.lucene.core.DirectoryProvider
+ */
+public enum DirectoryType {
+
+	/**
+	 * 根据JVM位数和操作系统自动选择MMap/NIO/Simple
+	 */
+	AUTO,
+
+	/**
+	 * @see org.apache.lucene.store.MMapDirectory
+	 */
+	MMAP,
+
+	/**
+	 * @see org.apache.lucene.store.NIOFSDirectory
+	 */
+	NIO,
+
+	/**
+	 * @see org.apache.lucene.store.SimpleFSDirectory
+	 */
+	SIMPLE,
+
+	/**
+	 * 纯内存，重启后数据丢失，适合临时缓存及测试
+	 *
+	 * @see org.apache.lucene.store.ByteBuffersDirectory
+	 */
+	MEMORY
+
+}
@@ -1,9 +1,16 @@
 package com.yida.lucene.constant;
 
+import com.yida.lucene.bean.LatLon;
+import com.yida.lucene.exception.EmbeddedLuceneException;
 import lombok.RequiredArgsConstructor;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexableField;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
 /**
  * @author yida
  * @date 2024/8/4 3:31
@@ -22,6 +29,14 @@ public enum FieldType implements IndexFieldSetter, IndexFieldGetter {
 	 */
 	STRING,
 
+	/**
+	 * 不分词，同时写入UTF-8编码的SortedDocValues，用于排序、分组及前缀、范围查询
+	 *
+	 * @see org.apache.lucene.document.StringField
+	 * @see org.apache.lucene.document.SortedDocValuesField
+	 */
+	KEYWORD,
+
 	/**
 	 * 转换成 {@link FieldType.LONG} 存储
 	 */
@@ -29,14 +44,28 @@ public enum FieldType implements IndexFieldSetter, IndexFieldGetter {
 
 	/**
 	 * @see org.apache.lucene.document.NumericDocValuesField
+	 * @see org.apache.lucene.document.IntPoint
 	 */
 	INT,
 
 	/**
 	 * @see org.apache.lucene.document.NumericDocValuesField
+	 * @see org.apache.lucene.document.LongPoint
 	 */
 	LONG,
 
+	/**
+	 * @see org.apache.lucene.document.SortedNumericDocValuesField
+	 * @see org.apache.lucene.document.DoublePoint
+	 */
+	DOUBLE,
+
+	/**
+	 * @see org.apache.lucene.document.SortedNumericDocValuesField
+	 * @see org.apache.lucene.document.FloatPoint
+	 */
+	FLOAT,
+
 	/**
 	 * @see org.apache.lucene.document.StringField
 	 */
@@ -47,17 +76,98 @@ public enum FieldType implements IndexFieldSetter, IndexFieldGetter {
 	 */
 	LATLON;
 
+	/**
+	 * 首次使用时解析，避免每次转换查找map
+	 */
+	private IndexFieldSetter setter;
+	private IndexFieldGetter getter;
+
 	@Override
 	public void set(String name, Object data, boolean store, Document container, Class<? extends IndexableField>[] extensionFields) {
 		if (null == data) {
 			return;
 		}
-		IndexFieldSetter.getSetter(this).set(name, data, store, container, extensionFields);
+		IndexFieldSetter resolved = setter;
+		if (null == resolved) {
+			resolved = setter = IndexFieldSetter.getSetter(this);
+		}
+		resolved.set(name, data, store, container, extensionFields);
 	}
 
 	@Override
 	public Object get(String value, Class<?> targetClass) {
-		return IndexFieldGetter.getGetter(this).get(value, targetClass);
+		IndexFieldGetter resolved = getter;
+		if (null == resolved) {
+			resolved = getter = IndexFieldGetter.getGetter(this);
+		}
+		return resolved.get(value, targetClass);
+	}
+
+	/**
+	 * 数值类型的存储值直接转换，无需经过字符串
+	 *
+	 * @param value       存储的数值
+	 * @param targetClass 目标类
+	 * @return targetVal
+	 */
+	public Object get(long value, Class<?> targetClass) {
+		switch (this) {
+			case LONG:
+				return value;
+			case INT:
+				return (int) value;
+			case DATE:
+				if (targetClass.isAssignableFrom(Date.class)) {
+					return new Date(value);
+				} else if (targetClass.isAssignableFrom(LocalDateTime.class)) {
+					return LocalDateTime.ofInstant(Instant.ofEpochMilli(value), IndexFieldTemplate.getDateZone());
+				} else if (targetClass.isAssignableFrom(LocalDate.class)) {
+					return LocalDateTime.ofInstant(Instant.ofEpochMilli(value), IndexFieldTemplate.getDateZone()).toLocalDate();
+				} else {
+					throw EmbeddedLuceneException.of("can not deserialize");
+				}
+			default:
+				return get(String.valueOf(value), targetClass);
+		}
+	}
+
+	/**
+	 * 浮点类型的存储值直接转换，无需经过字符串
+	 *
+	 * @param value       存储的数值
+	 * @param targetClass 目标类
+	 * @return targetVal
+	 */
+	public Object get(double value, Class<?> targetClass) {
+		switch (this) {
+			case DOUBLE:
+				return value;
+			case FLOAT:
+				return (float) value;
+			default:
+				return get(String.valueOf(value), targetClass);
+		}
+	}
+
+	/**
+	 * 转换成可以由{@link #get(String, Class)}还原的字符串
+	 *
+	 * @param data value
+	 * @return stringVal
+	 */
+	public String format(Object data) {
+		if (null == data) {
+			return null;
+		}
+		switch (this) {
+			case DATE:
+				return String.valueOf(IndexFieldTemplate.toEpochMilli(data));
+			case LATLON:
+				LatLon latLon = (LatLon) data;
+				return latLon.getLatitude() + "," + latLon.getLongitude();
+			default:
+				return data.toString();
+		}
 	}
 
 }
@@ -1,13 +1,7 @@
 package com.yida.lucene.constant;
 
 import com.yida.lucene.bean.LatLon;
-import com.yida.lucene.exception.EmbeddedLuceneException;
 
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -55,20 +49,13 @@ interface IndexFieldGetter {
 					FieldType.STRING,
 					(value, targetClass) -> value
 			);
+			HOLDER.put(
+					FieldType.KEYWORD,
+					(value, targetClass) -> value
+			);
 			HOLDER.put(
 					FieldType.DATE,
-					(value, targetClass) -> {
-						long timestamp = Long.parseLong(value);
-						if (targetClass.isAssignableFrom(Date.class)) {
-							return new Date(timestamp);
-						} else if (targetClass.isAssignableFrom(LocalDateTime.class)) {
-							return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault());
-						} else if (targetClass.isAssignableFrom(LocalDate.class)) {
-							return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()).toLocalDate();
-						} else {
-							throw EmbeddedLuceneException.of("can not deserialize");
-						}
-					}
+					(value, targetClass) -> FieldType.DATE.get(Long.parseLong(value), targetClass)
 			);
 			HOLDER.put(
 					FieldType.LONG,
@@ -78,6 +65,14 @@ interface IndexFieldGetter {
 					FieldType.INT,
 					(value, targetClass) -> Integer.parseInt(value)
 			);
+			HOLDER.put(
+					FieldType.DOUBLE,
+					(value, targetClass) -> Double.parseDouble(value)
+			);
+			HOLDER.put(
+					FieldType.FLOAT,
+					(value, targetClass) -> Float.parseFloat(value)
+			);
 			HOLDER.put(
 					FieldType.LATLON,
 					(value, targetClass) -> {
@@ -2,21 +2,24 @@ package com.yida.lucene.constant;
 
 import com.yida.lucene.bean.LatLon;
 import com.yida.lucene.exception.ElAssert;
-import com.yida.lucene.exception.EmbeddedLuceneException;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
 import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -93,22 +96,26 @@ interface IndexFieldSetter {
 						}
 					});
 			HOLDER.put(
-					FieldType.DATE,
+					FieldType.KEYWORD,
 					(name, data, store, document, extensionFields) -> {
-						long milliseconds = 0L;
-						if (data instanceof Date) {
-							Date time = (Date) data;
-							milliseconds = time.getTime();
-						} else if (data instanceof LocalDateTime) {
-							LocalDateTime time = (LocalDateTime) data;
-							milliseconds = time.toInstant(ZoneOffset.ofHours(8)).toEpochMilli();
-						} else if (data instanceof LocalDate) {
-							LocalDate time = (LocalDate) data;
-							milliseconds = time.atStartOfDay().toInstant(ZoneOffset.ofHours(8)).toEpochMilli();
-						} else {
-							throw EmbeddedLuceneException.of("data's type:" + data.getClass() + "is not support");
+						ElAssert.isTrue(data instanceof String, "data is not type of String");
+						document.add(new StringField(name, (String) data, store ? Field.Store.YES : Field.Store.NO));
+						document.add(new SortedDocValuesField(name, new BytesRef((String) data)));
+						if (null != extensionFields && extensionFields.length != 0) {
+							Arrays.stream(extensionFields)
+									.filter(field -> !field.equals(StringField.class))
+									.filter(field -> !field.equals(SortedDocValuesField.class))
+									.forEach(field -> {
+										document.add(FieldFactory.create(field, name, data));
+									});
 						}
+					});
+			HOLDER.put(
+					FieldType.DATE,
+					(name, data, store, document, extensionFields) -> {
+						long milliseconds = IndexFieldTemplate.toEpochMilli(data);
 						document.add(new NumericDocValuesField(name, milliseconds));
+						document.add(new LongPoint(name, milliseconds));
 						if (store) {
 							document.add(new StoredField(name, milliseconds));
 						}
@@ -127,6 +134,7 @@ interface IndexFieldSetter {
 						ElAssert.isTrue(data instanceof Long, "data is not type of Long");
 						Long longValue = (Long) data;
 						document.add(new NumericDocValuesField(name, longValue));
+						document.add(new LongPoint(name, longValue));
 						if (store) {
 							document.add(new StoredField(name, longValue));
 						}
@@ -145,6 +153,7 @@ interface IndexFieldSetter {
 						ElAssert.isTrue(data instanceof Integer, "data is not type of Integer");
 						Integer intValue = (Integer) data;
 						document.add(new NumericDocValuesField(name, intValue));
+						document.add(new IntPoint(name, intValue));
 						if (store) {
 							document.add(new StoredField(name, intValue));
 						}
@@ -157,6 +166,44 @@ interface IndexFieldSetter {
 									});
 						}
 					});
+			HOLDER.put(
+					FieldType.DOUBLE,
+					(name, data, store, document, extensionFields) -> {
+						ElAssert.isTrue(data instanceof Double, "data is not type of Double");
+						Double doubleValue = (Double) data;
+						document.add(new SortedNumericDocValuesField(name, NumericUtils.doubleToSortableLong(doubleValue)));
+						document.add(new DoublePoint(name, doubleValue));
+						if (store) {
+							document.add(new StoredField(name, doubleValue));
+						}
+						if (null != extensionFields && extensionFields.length != 0) {
+							Arrays.stream(extensionFields)
+									.filter(field -> !field.equals(SortedNumericDocValuesField.class))
+									.filter(field -> !field.equals(StoredField.class))
+									.forEach(field -> {
+										document.add(FieldFactory.create(field, name, data));
+									});
+						}
+					});
+			HOLDER.put(
+					FieldType.FLOAT,
+					(name, data, store, document, extensionFields) -> {
+						ElAssert.isTrue(data instanceof Float, "data is not type of Float");
+						Float floatValue = (Float) data;
+						document.add(new SortedNumericDocValuesField(name, NumericUtils.floatToSortableInt(floatValue)));
+						document.add(new FloatPoint(name, floatValue));
+						if (store) {
+							document.add(new StoredField(name, floatValue));
+						}
+						if (null != extensionFields && extensionFields.length != 0) {
+							Arrays.stream(extensionFields)
+									.filter(field -> !field.equals(SortedNumericDocValuesField.class))
+									.filter(field -> !field.equals(StoredField.class))
+									.forEach(field -> {
+										document.add(FieldFactory.create(field, name, data));
+									});
+						}
+					});
 
 			HOLDER.put(FieldType.LATLON,
 					(name, data, store, document, extensionFields) -> {
@@ -0,0 +1,282 @@
+package com.yida.lucene.constant;
+
+import com.yida.lucene.bean.LatLon;
+import com.yida.lucene.exception.ElAssert;
+import com.yida.lucene.exception.EmbeddedLuceneException;
+import com.yida.lucene.util.ByteUtil;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LatLonPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 可复用的索引字段模板<br/>
+ * 预先创建一个字段的全部Field实例，每个实体只通过setStringValue/setLongValue等替换值，与{@link IndexFieldSetter}产生相同的索引<br/>
+ * 非线程安全，填充的Field在下一次填充前必须被IndexWriter消费
+ *
+ * @author yida
+ * @date 2024/10/15 10:12
+ */
+public final class IndexFieldTemplate {
+
+	/**
+	 * LocalDateTime、LocalDate与毫秒时间戳互转统一使用的时区，写入、查询和还原保持一致，默认为系统时区
+	 */
+	private static volatile ZoneId dateZone = ZoneId.systemDefault();
+
+	private final FieldType type;
+
+	/**
+	 * 主字段，DATE、LONG、INT为NumericDocValuesField，DOUBLE、FLOAT为可排序编码的SortedNumericDocValuesField
+	 */
+	private final Field field;
+
+	/**
+	 * DATE、LONG、INT、DOUBLE、FLOAT的点字段，用于范围查询，其他类型为null
+	 */
+	private final Field pointField;
+
+	/**
+	 * KEYWORD的UTF-8编码SortedDocValuesField，其他类型为null
+	 */
+	private final Field sortedField;
+
+	/**
+	 * 存储字段，不存储或主字段已存储时为null
+	 */
+	private final StoredField storedField;
+
+	/**
+	 * 去除与主字段重复后的扩展字段
+	 */
+	private final Field[] extensionFields;
+
+	private IndexFieldTemplate(FieldType type, String name, boolean store, Class<? extends IndexableField>[] extensionClasses) {
+		this.type = type;
+		Field.Store fieldStore = store ? Field.Store.YES : Field.Store.NO;
+		Class<?> skip;
+		boolean skipStored = true;
+		Field sorted = null;
+		switch (type) {
+			case TEXT:
+				field = new TextField(name, "", fieldStore);
+				storedField = null;
+				pointField = null;
+				skip = TextField.class;
+				skipStored = false;
+				break;
+			case KEYWORD:
+				field = new StringField(name, "", fieldStore);
+				storedField = null;
+				pointField = null;
+				sorted = new SortedDocValuesField(name, new BytesRef());
+				skip = StringField.class;
+				skipStored = false;
+				break;
+			case STRING:
+			case BOOL:
+				field = new StringField(name, "", fieldStore);
+				storedField = null;
+				pointField = null;
+				skip = StringField.class;
+				skipStored = false;
+				break;
+			case DATE:
+			case LONG:
+				field = new NumericDocValuesField(name, 0L);
+				storedField = store ? new StoredField(name, 0L) : null;
+				pointField = new LongPoint(name, 0L);
+				skip = NumericDocValuesField.class;
+				break;
+			case INT:
+				field = new NumericDocValuesField(name, 0L);
+				storedField = store ? new StoredField(name, 0) : null;
+				pointField = new IntPoint(name, 0);
+				skip = NumericDocValuesField.class;
+				break;
+			case DOUBLE:
+				field = new SortedNumericDocValuesField(name, 0L);
+				storedField = store ? new StoredField(name, 0d) : null;
+				pointField = new DoublePoint(name, 0d);
+				skip = SortedNumericDocValuesField.class;
+				break;
+			case FLOAT:
+				field = new SortedNumericDocValuesField(name, 0L);
+				storedField = store ? new StoredField(name, 0f) : null;
+				pointField = new FloatPoint(name, 0f);
+				skip = SortedNumericDocValuesField.class;
+				break;
+			case LATLON:
+				field = new LatLonPoint(name, 0, 0);
+				storedField = store ? new StoredField(name, "") : null;
+				pointField = null;
+				skip = LatLonPoint.class;
+				break;
+			default:
+				throw EmbeddedLuceneException.of("unsupported field type : " + type);
+		}
+		List<Field> extensions = new ArrayList<>();
+		if (null != extensionClasses) {
+			for (Class<? extends IndexableField> extensionClass : extensionClasses) {
+				if (extensionClass.equals(skip) || (skipStored && extensionClass.equals(StoredField.class))
+						|| (null != sorted && extensionClass.equals(SortedDocValuesField.class))) {
+					continue;
+				}
+				if (!SortedDocValuesField.class.equals(extensionClass)) {
+					throw EmbeddedLuceneException.of("unsupported field class : " + extensionClass.getName());
+				}
+				extensions.add(new SortedDocValuesField(name, new BytesRef()));
+			}
+		}
+		this.sortedField = sorted;
+		this.extensionFields = extensions.toArray(new Field[0]);
+	}
+
+	public static IndexFieldTemplate create(FieldType type, String name, boolean store, Class<? extends IndexableField>[] extensionFields) {
+		return new IndexFieldTemplate(type, name, store, extensionFields);
+	}
+
+	/**
+	 * 替换字段值并添加到文档
+	 *
+	 * @param data     value，为null时不添加
+	 * @param document 文档
+	 */
+	public void fill(Object data, Document document) {
+		if (null == data) {
+			return;
+		}
+		switch (type) {
+			case TEXT:
+			case STRING:
+				ElAssert.isTrue(data instanceof String, "data is not type of String");
+				field.setStringValue((String) data);
+				break;
+			case KEYWORD:
+				ElAssert.isTrue(data instanceof String, "data is not type of String");
+				field.setStringValue((String) data);
+				sortedField.setBytesValue(new BytesRef((String) data));
+				break;
+			case BOOL:
+				ElAssert.isTrue(data instanceof Boolean, "data is not type of Boolean");
+				field.setStringValue(data.toString());
+				break;
+			case DATE:
+				long milliseconds = toEpochMilli(data);
+				field.setLongValue(milliseconds);
+				pointField.setLongValue(milliseconds);
+				if (null != storedField) {
+					storedField.setLongValue(milliseconds);
+				}
+				break;
+			case LONG:
+				ElAssert.isTrue(data instanceof Long, "data is not type of Long");
+				field.setLongValue((Long) data);
+				pointField.setLongValue((Long) data);
+				if (null != storedField) {
+					storedField.setLongValue((Long) data);
+				}
+				break;
+			case INT:
+				ElAssert.isTrue(data instanceof Integer, "data is not type of Integer");
+				field.setLongValue((Integer) data);
+				pointField.setIntValue((Integer) data);
+				if (null != storedField) {
+					storedField.setIntValue((Integer) data);
+				}
+				break;
+			case DOUBLE:
+				ElAssert.isTrue(data instanceof Double, "data is not type of Double");
+				field.setLongValue(NumericUtils.doubleToSortableLong((Double) data));
+				pointField.setDoubleValue((Double) data);
+				if (null != storedField) {
+					storedField.setDoubleValue((Double) data);
+				}
+				break;
+			case FLOAT:
+				ElAssert.isTrue(data instanceof Float, "data is not type of Float");
+				field.setLongValue(NumericUtils.floatToSortableInt((Float) data));
+				pointField.setFloatValue((Float) data);
+				if (null != storedField) {
+					storedField.setFloatValue((Float) data);
+				}
+				break;
+			case LATLON:
+				ElAssert.isTrue(data instanceof LatLon, "data is not type of LatLon");
+				LatLon latLon = (LatLon) data;
+				((LatLonPoint) field).setLocationValue(latLon.getLatitude(), latLon.getLongitude());
+				if (null != storedField) {
+					storedField.setStringValue(latLon.getLatitude() + "," + latLon.getLongitude());
+				}
+				break;
+			default:
+				throw EmbeddedLuceneException.of("unsupported field type : " + type);
+		}
+		document.add(field);
+		if (null != pointField) {
+			document.add(pointField);
+		}
+		if (null != sortedField) {
+			document.add(sortedField);
+		}
+		if (null != storedField) {
+			document.add(storedField);
+		}
+		for (Field extensionField : extensionFields) {
+			byte[] bytes = data instanceof String ? ((String) data).getBytes() : ByteUtil.numberToBytes((Number) data);
+			extensionField.setBytesValue(new BytesRef(bytes));
+			document.add(extensionField);
+		}
+	}
+
+	/**
+	 * DATE类型的值转换为毫秒时间戳
+	 *
+	 * @param data Date、LocalDateTime、LocalDate
+	 * @return 毫秒时间戳
+	 */
+	public static long toEpochMilli(Object data) {
+		if (data instanceof Date) {
+			return ((Date) data).getTime();
+		} else if (data instanceof LocalDateTime) {
+			return ((LocalDateTime) data).atZone(dateZone).toInstant().toEpochMilli();
+		} else if (data instanceof LocalDate) {
+			return ((LocalDate) data).atStartOfDay(dateZone).toInstant().toEpochMilli();
+		}
+		throw EmbeddedLuceneException.of("data's type:" + data.getClass() + "is not support");
+	}
+
+	public static ZoneId getDateZone() {
+		return dateZone;
+	}
+
+	/**
+	 * 设置DATE类型的时区，由EmbeddedLucene启动时根据配置设置，修改后已写入的LocalDateTime、LocalDate按新时区还原
+	 *
+	 * @param zone 时区
+	 */
+	public static void setDateZone(ZoneId zone) {
+		ElAssert.nonNull(zone, "dateZone cannot be null");
+		dateZone = zone;
+	}
+
+}
@@ -42,6 +42,10 @@ public interface TypeChecker {
 					FieldType.STRING,
 					stringTypeChecker
 			);
+			HOLDER.put(
+					FieldType.KEYWORD,
+					stringTypeChecker
+			);
 			HOLDER.put(
 					FieldType.LONG,
 					object -> object instanceof Long
@@ -50,6 +54,14 @@ public interface TypeChecker {
 					FieldType.INT,
 					object -> object instanceof Integer
 			);
+			HOLDER.put(
+					FieldType.DOUBLE,
+					object -> object instanceof Double
+			);
+			HOLDER.put(
+					FieldType.FLOAT,
+					object -> object instanceof Float
+			);
 			HOLDER.put(
 					FieldType.DATE,
 					object -> object instanceof Date || object instanceof LocalDate || object instanceof LocalDateTime
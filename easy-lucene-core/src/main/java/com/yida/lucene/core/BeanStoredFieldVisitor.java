@@ -0,0 +1,112 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.constant.FieldType;
+import com.yida.lucene.repository.hightlight.HighlightRender;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 存储字段直接解码到javabean，不经过Document和Map<br/>
+ * 数值字段通过longField、intField、doubleField、floatField回调直接赋值，字符串字段在解码时完成高亮；紧凑存储时只读取_source一次解码
+ *
+ * @author yida
+ * @date 2024/10/14 15:20
+ * @see DocFactory#toJavaBean(org.apache.lucene.search.IndexSearcher, int, HighlightRender, Set)
+ */
+final class BeanStoredFieldVisitor<T> extends StoredFieldVisitor implements SourceCodec.Sink {
+
+	private final T bean;
+	private final Map<String, FieldAccessor> nameAccessorMap;
+	private final String idFieldName;
+	private final HighlightRender highlightRender;
+	private final Set<String> selectFieldSet;
+	private final SourceCodec sourceCodec;
+
+	BeanStoredFieldVisitor(T bean, Map<String, FieldAccessor> nameAccessorMap, String idFieldName,
+						   HighlightRender highlightRender, Set<String> selectFieldSet, SourceCodec sourceCodec) {
+		this.bean = bean;
+		this.nameAccessorMap = nameAccessorMap;
+		this.idFieldName = idFieldName;
+		this.highlightRender = highlightRender;
+		this.selectFieldSet = null == selectFieldSet || selectFieldSet.isEmpty() ? null : selectFieldSet;
+		this.sourceCodec = sourceCodec;
+	}
+
+	T getBean() {
+		return bean;
+	}
+
+	@Override
+	public Status needsField(FieldInfo fieldInfo) {
+		if (null != sourceCodec) {
+			return SourceCodec.FIELD_NAME.equals(fieldInfo.name) ? Status.YES : Status.NO;
+		}
+		if (!nameAccessorMap.containsKey(fieldInfo.name)) {
+			return Status.NO;
+		}
+		return null == selectFieldSet || selectFieldSet.contains(fieldInfo.name) ? Status.YES : Status.NO;
+	}
+
+	@Override
+	public void binaryField(FieldInfo fieldInfo, byte[] value) {
+		sourceCodec.decode(new BytesRef(value), this);
+	}
+
+	@Override
+	public void stringField(FieldInfo fieldInfo, byte[] value) {
+		stringValue(nameAccessorMap.get(fieldInfo.name), new String(value, StandardCharsets.UTF_8));
+	}
+
+	@Override
+	public boolean accept(FieldAccessor accessor) {
+		return null == selectFieldSet || selectFieldSet.contains(accessor.name);
+	}
+
+	@Override
+	public void stringValue(FieldAccessor accessor, String text) {
+		if (null != highlightRender && (accessor.type == FieldType.TEXT || accessor.type == FieldType.STRING || accessor.type == FieldType.KEYWORD)
+				&& !accessor.name.equals(idFieldName)) {
+			String rendered = highlightRender.render(accessor.name, text);
+			if (null != rendered) {
+				text = rendered;
+			}
+		}
+		accessor.read(bean, text);
+	}
+
+	@Override
+	public void longValue(FieldAccessor accessor, long value) {
+		accessor.read(bean, value);
+	}
+
+	@Override
+	public void doubleValue(FieldAccessor accessor, double value) {
+		accessor.read(bean, value);
+	}
+
+	@Override
+	public void intField(FieldInfo fieldInfo, int value) {
+		nameAccessorMap.get(fieldInfo.name).read(bean, value);
+	}
+
+	@Override
+	public void longField(FieldInfo fieldInfo, long value) {
+		nameAccessorMap.get(fieldInfo.name).read(bean, value);
+	}
+
+	@Override
+	public void floatField(FieldInfo fieldInfo, float value) {
+		nameAccessorMap.get(fieldInfo.name).read(bean, (double) value);
+	}
+
+	@Override
+	public void doubleField(FieldInfo fieldInfo, double value) {
+		nameAccessorMap.get(fieldInfo.name).read(bean, value);
+	}
+
+}
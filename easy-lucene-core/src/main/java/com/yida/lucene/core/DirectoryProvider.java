@@ -0,0 +1,164 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.constant.DirectoryType;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.LockFactory;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.store.NIOFSDirectory;
+import org.apache.lucene.store.NRTCachingDirectory;
+import org.apache.lucene.store.NativeFSLockFactory;
+import org.apache.lucene.store.SimpleFSDirectory;
+import org.apache.lucene.store.SingleInstanceLockFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 索引目录提供者，可以通过{@link EmbeddedLuceneConfig.Builder#directory(Class, DirectoryProvider)}为每个文档类单独配置
+ *
+ * @author yida
+ * @date 2024/10/12 10:12
+ */
+@FunctionalInterface
+public interface DirectoryProvider {
+
+	/**
+	 * 打开索引目录
+	 *
+	 * @param path 索引路径
+	 * @return Directory
+	 * @throws IOException IOException
+	 */
+	Directory open(Path path) throws IOException;
+
+	/**
+	 * 是否持久化，非持久化的目录不记录操作日志
+	 *
+	 * @return boolean
+	 */
+	default boolean persistent() {
+		return true;
+	}
+
+	/**
+	 * 使用NRTCachingDirectory包装，较小的新段先缓存在内存中，减少近实时刷新产生的小文件IO
+	 *
+	 * @param maxMergeSizeMB 可以缓存的段的最大合并大小
+	 * @param maxCachedMB    缓存的最大总大小
+	 * @return DirectoryProvider
+	 */
+	default DirectoryProvider nrtCaching(double maxMergeSizeMB, double maxCachedMB) {
+		DirectoryProvider delegate = this;
+		return new DirectoryProvider() {
+			@Override
+			public Directory open(Path path) throws IOException {
+				return new NRTCachingDirectory(delegate.open(path), maxMergeSizeMB, maxCachedMB);
+			}
+
+			@Override
+			public boolean persistent() {
+				return delegate.persistent();
+			}
+		};
+	}
+
+	/**
+	 * 持久化目录使用操作系统文件锁，防止其他进程(或误以非只读方式启动的实例)同时打开同一索引的IndexWriter；
+	 * 只读打开不获取锁，不受影响
+	 */
+	LockFactory LOCK_FACTORY = NativeFSLockFactory.INSTANCE;
+
+	/**
+	 * 1、SimpleFSDirectory
+	 * 最简单的FSDirectory子类，使用java.io.*API将文件存入文件系统中，不能很好支持多线程操作。
+	 * 因为要做到这点就必须在内部加入锁，而java.io.*并不支持按位置读取。
+	 * <p>
+	 * 2、NIOFSDirectory
+	 * 使用java.io.*API所提供的位置读取接口，能很好的支持除Windows之外的多线程操作，原因是Sun的JRE在Windows平台上长期存在问题。
+	 * NIOFSDirectory在Windows操作系统的性能比较差，甚至可能比SimpleFSDirecory的性能还差。
+	 * <p>
+	 * 3、MmapDirectory
+	 * 使用内存映射的I/O接口进行读操作，这样不需要采取锁机制，并能很好的支持多线程读操作。
+	 * 但由于内存映射的I/O所消耗的地址空间是与索引尺寸相等，所以建议最好只是用64位JRE。
+	 *
+	 * @return DirectoryProvider
+	 */
+	static DirectoryProvider auto() {
+		return path -> {
+			String vmName = System.getProperty("java.vm.name").toLowerCase();
+			if (vmName.contains("64")) {
+				return MMapDirectory.open(path, LOCK_FACTORY);
+			}
+			String systemName = System.getProperty("os.name").toLowerCase();
+			if (systemName.contains("win")) {
+				return SimpleFSDirectory.open(path, LOCK_FACTORY);
+			}
+			return NIOFSDirectory.open(path, LOCK_FACTORY);
+		};
+	}
+
+	/**
+	 * MMapDirectory，开启预加载时文件打开后即读入操作系统页缓存，避免首次查询时的缺页
+	 *
+	 * @param preload 是否预加载
+	 * @return DirectoryProvider
+	 */
+	static DirectoryProvider mmap(boolean preload) {
+		return path -> {
+			MMapDirectory directory = new MMapDirectory(path, LOCK_FACTORY);
+			directory.setPreload(preload);
+			return directory;
+		};
+	}
+
+	static DirectoryProvider nio() {
+		return path -> new NIOFSDirectory(path, LOCK_FACTORY);
+	}
+
+	static DirectoryProvider simple() {
+		return path -> new SimpleFSDirectory(path, LOCK_FACTORY);
+	}
+
+	/**
+	 * 纯内存目录，重启后数据丢失
+	 *
+	 * @return DirectoryProvider
+	 */
+	static DirectoryProvider memory() {
+		return new DirectoryProvider() {
+			@Override
+			public Directory open(Path path) {
+				return new ByteBuffersDirectory(new SingleInstanceLockFactory());
+			}
+
+			@Override
+			public boolean persistent() {
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * 根据目录类型创建
+	 *
+	 * @param type    目录类型
+	 * @param preload MMAP时是否预加载
+	 * @return DirectoryProvider
+	 */
+	static DirectoryProvider of(DirectoryType type, boolean preload) {
+		switch (type) {
+			case MMAP:
+				return mmap(preload);
+			case NIO:
+				return nio();
+			case SIMPLE:
+				return simple();
+			case MEMORY:
+				return memory();
+			default:
+				return auto();
+		}
+	}
+
+}
@@ -1,31 +1,56 @@
 package com.yida.lucene.core;
 
 import com.yida.lucene.annotation.AutoFill;
+import com.yida.lucene.annotation.CompactSource;
 import com.yida.lucene.annotation.DocField;
 import com.yida.lucene.annotation.DocId;
+import com.yida.lucene.annotation.IndexSort;
 import com.yida.lucene.annotation.LogicDel;
 import com.yida.lucene.bean.Pair;
 import com.yida.lucene.constant.FieldType;
+import com.yida.lucene.constant.IndexFieldTemplate;
 import com.yida.lucene.exception.ElAssert;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.repository.hightlight.HighlightRender;
 import com.yida.lucene.repository.query.Querys;
 import com.yida.lucene.util.BeanDesc;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.DocValuesType;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
-
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.NumericUtils;
+
+import java.io.IOException;
 import java.io.Serializable;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,6 +58,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -50,16 +76,6 @@ public class DocFactory<T> {
 	 */
 	private static final Map<Class<?>, Set<Field>> CLASS_FIELD_CACHE = new ConcurrentHashMap<>();
 
-	/**
-	 * 除id外的getter
-	 */
-	private static final Map<Field, Method> FIELD_GETTER_CACHE = new ConcurrentHashMap<>();
-
-	/**
-	 * 除id外的setter
-	 */
-	private static final Map<Field, Method> FIELD_SETTER_CACHE = new ConcurrentHashMap<>();
-
 	/**
 	 * 字段 => DocField
 	 */
@@ -86,14 +102,24 @@ public class DocFactory<T> {
 	private static final Map<Class<?>, Field> CLASS_ID_CACHE = new ConcurrentHashMap<>();
 
 	/**
-	 * id字段 => getter
+	 * 类 => 字段描述，第一个为id
 	 */
-	private static final Map<Field, Method> ID_GETTER_CACHE = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, FieldAccessor[]> CLASS_ACCESSOR_CACHE = new ConcurrentHashMap<>();
 
 	/**
-	 * id字段 => setter
+	 * 类 => 索引排序
 	 */
-	private static final Map<Field, Method> ID_SETTER_CACHE = new ConcurrentHashMap<>();
+	private static final Map<Class<?>, Sort> CLASS_INDEX_SORT_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 类 => 紧凑_source编解码，未开启时不存在
+	 */
+	private static final Map<Class<?>, SourceCodec> CLASS_SOURCE_CODEC_CACHE = new ConcurrentHashMap<>();
+
+	/**
+	 * 类 => 编译期生成的映射，不存在时不放入
+	 */
+	private static final Map<Class<?>, DocMapper<?>> CLASS_MAPPER_CACHE = new ConcurrentHashMap<>();
 
 	public static <T> DocFactory<T> getDocFactory(Class<T> docClass, Constructor<T> constructor) {
 		Field id = CLASS_ID_CACHE.get(docClass);
@@ -129,11 +155,25 @@ public class DocFactory<T> {
 		}
 
 		CLASS_FIELD_CACHE.put(docClass, fields);
-		BeanDesc beanDesc = new BeanDesc(docClass);
+		DocMapper<T> mapper = findMapper(docClass, fields);
+		BeanDesc beanDesc = null == mapper ? new BeanDesc(docClass) : null;
 
 		Map<Field, AutoFill> autoFillMap = new HashMap<>();
 		AUTO_FILL_CACHE.put(docClass, autoFillMap);
 
+		Field idField = CLASS_ID_CACHE.get(docClass);
+		DocId docId = CLASS_DOC_ID_CACHE.get(docClass);
+		// 紧凑存储时各字段只建索引，存储的字段统一编码到_source
+		boolean compact = docClass.isAnnotationPresent(CompactSource.class);
+		List<FieldAccessor> accessors = new ArrayList<>(fields.size() + 1);
+		List<FieldAccessor> sourceAccessors = new ArrayList<>(fields.size() + 1);
+		FieldAccessor idAccessor = null == mapper
+				? new FieldAccessor(idField, docId.type(), !compact, docId.extensionFields(),
+				beanDesc.getGetter(idField.getName()), beanDesc.getSetter(idField.getName()))
+				: new FieldAccessor(idField, docId.type(), !compact, docId.extensionFields(), mapper, 0);
+		accessors.add(idAccessor);
+		sourceAccessors.add(idAccessor);
+
 		fields.forEach(field -> {
 			AutoFill autoFill = field.getAnnotation(AutoFill.class);
 			if (Objects.nonNull(autoFill)) {
@@ -148,18 +188,93 @@ public class DocFactory<T> {
 				}
 			}
 
-			DOC_FIELD_CACHE.put(field, field.getAnnotation(DocField.class));
-			Method getter = beanDesc.getGetter(field.getName());
-			Method setter = beanDesc.getSetter(field.getName());
-			FIELD_GETTER_CACHE.put(field, getter);
-			FIELD_SETTER_CACHE.put(field, setter);
+			DocField docField = field.getAnnotation(DocField.class);
+			DOC_FIELD_CACHE.put(field, docField);
+			FieldAccessor accessor = null == mapper
+					? new FieldAccessor(field, docField.type(), docField.store() && !compact, docField.extensionFields(),
+					beanDesc.getGetter(field.getName()), beanDesc.getSetter(field.getName()))
+					: new FieldAccessor(field, docField.type(), docField.store() && !compact, docField.extensionFields(),
+					mapper, Arrays.asList(mapper.fieldNames()).indexOf(field.getName()));
+			accessors.add(accessor);
+			if (docField.store()) {
+				sourceAccessors.add(accessor);
+			}
 		});
+		if (null != mapper) {
+			// 按DocMapper的字段顺序排列，文档模板的下标与生成的fill一致
+			List<String> mapperNames = Arrays.asList(mapper.fieldNames());
+			accessors.subList(1, accessors.size()).sort(Comparator.comparingInt(accessor -> mapperNames.indexOf(accessor.name)));
+		}
+		CLASS_ACCESSOR_CACHE.put(docClass, accessors.toArray(new FieldAccessor[0]));
+		if (compact) {
+			CLASS_SOURCE_CODEC_CACHE.put(docClass, new SourceCodec(sourceAccessors.toArray(new FieldAccessor[0])));
+		}
 
-		Field idField = CLASS_ID_CACHE.get(docClass);
-		ID_GETTER_CACHE.put(idField, beanDesc.getGetter(idField.getName()));
-		ID_SETTER_CACHE.put(idField, beanDesc.getSetter(idField.getName()));
+		SortField[] indexSortFields = Arrays.stream(docClass.getDeclaredFields())
+				.filter(field -> field.isAnnotationPresent(IndexSort.class))
+				.sorted(Comparator.comparingInt(field -> field.getAnnotation(IndexSort.class).order()))
+				.map(field -> {
+					FieldType type = field.equals(idField)
+							? CLASS_DOC_ID_CACHE.get(docClass).type()
+							: DOC_FIELD_CACHE.get(field).type();
+					return indexSortField(field.getName(), type, field.getAnnotation(IndexSort.class).reverse());
+				})
+				.toArray(SortField[]::new);
+		if (indexSortFields.length != 0) {
+			CLASS_INDEX_SORT_CACHE.put(docClass, new Sort(indexSortFields));
+		}
+	}
+
+	private static SortField indexSortField(String name, FieldType type, boolean reverse) {
+		switch (type) {
+			case DATE:
+			case LONG:
+				return new SortField(name, SortField.Type.LONG, reverse);
+			case INT:
+				return new SortField(name, SortField.Type.INT, reverse);
+			case KEYWORD:
+				return new SortField(name, SortField.Type.STRING, reverse);
+			case DOUBLE:
+				return new SortedNumericSortField(name, SortField.Type.DOUBLE, reverse);
+			case FLOAT:
+				return new SortedNumericSortField(name, SortField.Type.FLOAT, reverse);
+			default:
+				throw EmbeddedLuceneException.of("annotation IndexSort only support DATE, LONG, INT, DOUBLE, FLOAT, KEYWORD type!");
+		}
+	}
+
+	/**
+	 * 查找编译期生成的{@link DocMapper}，字段与注解不一致(未重新编译)时忽略
+	 *
+	 * @param docClass 文档类
+	 * @param fields   除id外的字段
+	 * @return DocMapper，不存在时为null
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> DocMapper<T> findMapper(Class<T> docClass, Set<Field> fields) {
+		DocMapper<T> mapper;
+		try {
+			Class<?> mapperClass = Class.forName(docClass.getName() + DocMapper.SUFFIX, true, docClass.getClassLoader());
+			mapper = (DocMapper<T>) mapperClass.getConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ReflectiveOperationException | ClassCastException e) {
+			log.warn("DocMapper of class {} can not be used, fallback to reflection", docClass.getName(), e);
+			return null;
+		}
+		Set<String> names = fields.stream().map(Field::getName).collect(Collectors.toSet());
+		String[] fieldNames = mapper.fieldNames();
+		if (fieldNames.length != names.size() + 1 || !fieldNames[0].equals(CLASS_ID_CACHE.get(docClass).getName())
+				|| !names.containsAll(Arrays.asList(fieldNames).subList(1, fieldNames.length))) {
+			log.warn("DocMapper of class {} is stale, fallback to reflection", docClass.getName());
+			return null;
+		}
+		CLASS_MAPPER_CACHE.put(docClass, mapper);
+		log.debug("Using generated DocMapper for class : {}", docClass.getName());
+		return mapper;
 	}
 
+	@SuppressWarnings("unchecked")
 	public DocFactory(Class<T> docClass, Constructor<T> constructor) {
 		log.info("Creating DocFactory bind from class : {}", docClass.getName());
 
@@ -173,6 +288,16 @@ public class DocFactory<T> {
 
 		this.fields = CLASS_FIELD_CACHE.get(docClass);
 		this.nameFieldMap = this.fields.stream().collect(Collectors.toMap(Field::getName, Function.identity()));
+
+		FieldAccessor[] accessors = CLASS_ACCESSOR_CACHE.get(docClass);
+		this.idAccessor = accessors[0];
+		this.fieldAccessors = Arrays.copyOfRange(accessors, 1, accessors.length);
+		this.nameAccessorMap = Arrays.stream(accessors).collect(Collectors.toMap(accessor -> accessor.name, Function.identity()));
+		this.mapper = (DocMapper<T>) CLASS_MAPPER_CACHE.get(docClass);
+		this.instantiator = null == mapper ? FieldAccessor.createInstantiator(constructor) : mapper::newInstance;
+		this.sourceCodec = CLASS_SOURCE_CODEC_CACHE.get(docClass);
+		this.docTemplate = ThreadLocal.withInitial(() -> new DocTemplate(idAccessor, fieldAccessors, null != sourceCodec));
+		this.indexSort = CLASS_INDEX_SORT_CACHE.get(docClass);
 	}
 
 	private final Class<T> docClass;
@@ -188,6 +313,60 @@ public class DocFactory<T> {
 	private final Set<Field> fields;
 	private final Map<String, Field> nameFieldMap;
 
+	/**
+	 * 预先解析的字段描述，热路径上不再查找缓存或反射调用
+	 */
+	@Getter(AccessLevel.NONE)
+	private final FieldAccessor idAccessor;
+	@Getter(AccessLevel.NONE)
+	private final FieldAccessor[] fieldAccessors;
+	@Getter(AccessLevel.NONE)
+	private final Map<String, FieldAccessor> nameAccessorMap;
+	@Getter(AccessLevel.NONE)
+	private final Supplier<T> instantiator;
+
+	/**
+	 * 编译期生成的映射，不存在时为null
+	 */
+	@Getter(AccessLevel.NONE)
+	private final DocMapper<T> mapper;
+	@Getter(AccessLevel.NONE)
+	private final ThreadLocal<DocTemplate> docTemplate;
+
+	/**
+	 * 紧凑_source编解码，未开启时为null
+	 */
+	@Getter(AccessLevel.NONE)
+	private final SourceCodec sourceCodec;
+
+	/**
+	 * 索引排序，未声明时为null
+	 */
+	private final Sort indexSort;
+
+	/**
+	 * 排序是否为索引排序的前缀，是则查询可以提前结束
+	 *
+	 * @param sort sort
+	 * @return boolean
+	 */
+	public boolean isIndexSortPrefix(Sort sort) {
+		if (Objects.isNull(indexSort) || Objects.isNull(sort)) {
+			return false;
+		}
+		SortField[] sortFields = sort.getSort();
+		SortField[] indexSortFields = indexSort.getSort();
+		if (sortFields.length > indexSortFields.length) {
+			return false;
+		}
+		for (int i = 0; i < sortFields.length; i++) {
+			if (!sortFields[i].equals(indexSortFields[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * 获取字段的FieldType
 	 *
@@ -223,21 +402,65 @@ public class DocFactory<T> {
 	 */
 	public Document createDoc(T data) {
 		Document doc = new Document();
-		try {
-			Method idGetter = ID_GETTER_CACHE.get(idField);
-			DocId docId = CLASS_DOC_ID_CACHE.get(docClass);
-			docId.type().set(idFieldName, idGetter.invoke(data), true, doc, docId.extensionFields());
-			for (Field field : fields) {
-				Method getter = FIELD_GETTER_CACHE.get(field);
-				DocField docField = DOC_FIELD_CACHE.get(field);
-				docField.type().set(field.getName(), getter.invoke(data), docField.store(), doc, docField.extensionFields());
+		idAccessor.write(data, doc);
+		for (FieldAccessor accessor : fieldAccessors) {
+			accessor.write(data, doc);
+		}
+		if (null != sourceCodec) {
+			doc.add(new StoredField(SourceCodec.FIELD_NAME, sourceCodec.encode(data, new BytesRefBuilder())));
+		}
+		return doc;
+	}
+
+
+	/**
+	 * 复用当前线程的文档模板创建文档，只替换各字段的值，不再为每个实体创建Document和Field<br/>
+	 * 返回的文档在当前线程下一次调用前有效，必须在此之前交给IndexWriter
+	 *
+	 * @param data javabean
+	 * @return 当前线程复用的Document
+	 */
+	public Document reuseDoc(T data) {
+		DocTemplate template = docTemplate.get();
+		Document doc = template.document;
+		doc.clear();
+		if (null != mapper) {
+			mapper.fill(data, template.fields, doc);
+		} else {
+			idAccessor.write(data, template.fields[0], doc);
+			for (int i = 0; i < fieldAccessors.length; i++) {
+				fieldAccessors[i].write(data, template.fields[i + 1], doc);
 			}
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw EmbeddedLuceneException.of(e);
+		}
+		if (null != sourceCodec) {
+			template.sourceField.setBytesValue(sourceCodec.encode(data, template.sourceBuffer));
+			doc.add(template.sourceField);
 		}
 		return doc;
 	}
 
+	/**
+	 * 单个线程持有的文档模板
+	 */
+	private static final class DocTemplate {
+		private final Document document = new Document();
+		/**
+		 * 第一个为id，下标与DocMapper的fieldNames一致
+		 */
+		private final IndexFieldTemplate[] fields;
+		private final BytesRefBuilder sourceBuffer;
+		private final StoredField sourceField;
+
+		private DocTemplate(FieldAccessor idAccessor, FieldAccessor[] fieldAccessors, boolean compact) {
+			this.fields = new IndexFieldTemplate[fieldAccessors.length + 1];
+			this.fields[0] = idAccessor.newTemplate();
+			for (int i = 0; i < fieldAccessors.length; i++) {
+				this.fields[i + 1] = fieldAccessors[i].newTemplate();
+			}
+			this.sourceBuffer = compact ? new BytesRefBuilder() : null;
+			this.sourceField = compact ? new StoredField(SourceCodec.FIELD_NAME, new BytesRef()) : null;
+		}
+	}
 
 	/**
 	 * 文档 => javabean
@@ -250,39 +473,197 @@ public class DocFactory<T> {
 		return toJavaBean(toMap(renderHighlight(doc, highlightRender)));
 	}
 
-	public void setVal(T t, String fieldName, Object val) {
-		try {
-			if (fieldName.equals(idFieldName)) {
-				ID_SETTER_CACHE.get(idField).invoke(t, val);
-			} else {
-				Field field = nameFieldMap.get(fieldName);
-				FIELD_SETTER_CACHE.get(field).invoke(t, val);
+	/**
+	 * 存储字段直接解码为javabean，不创建Document和Map
+	 *
+	 * @param searcher        searcher
+	 * @param docId           文档id
+	 * @param highlightRender 高亮
+	 * @param selectFieldSet  需要加载的字段，为空时加载全部
+	 * @return javabean
+	 * @throws IOException IOException
+	 */
+	public T toJavaBean(IndexSearcher searcher, int docId, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		BeanStoredFieldVisitor<T> visitor = new BeanStoredFieldVisitor<>(instantiator.get(), nameAccessorMap, idFieldName, highlightRender, selectFieldSet, sourceCodec);
+		searcher.doc(docId, visitor);
+		return visitor.getBean();
+	}
+
+	/**
+	 * 加载文档并高亮，紧凑存储时将_source展开为各字段的存储字段
+	 *
+	 * @param searcher        searcher
+	 * @param docId           文档id
+	 * @param highlightRender 高亮
+	 * @param selectFieldSet  需要加载的字段，为空时加载全部
+	 * @return 文档
+	 * @throws IOException IOException
+	 */
+	public Document loadDocument(IndexSearcher searcher, int docId, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		boolean selectAll = null == selectFieldSet || selectFieldSet.isEmpty();
+		if (null == sourceCodec) {
+			Document doc = selectAll ? searcher.doc(docId) : searcher.doc(docId, selectFieldSet);
+			return renderHighlight(doc, highlightRender);
+		}
+		Document doc = new Document();
+		BytesRef source = searcher.doc(docId, Collections.singleton(SourceCodec.FIELD_NAME)).getBinaryValue(SourceCodec.FIELD_NAME);
+		if (null != source) {
+			sourceCodec.decode(source, new SourceCodec.Sink() {
+				@Override
+				public boolean accept(FieldAccessor accessor) {
+					return selectAll || selectFieldSet.contains(accessor.name);
+				}
+
+				@Override
+				public void stringValue(FieldAccessor accessor, String value) {
+					doc.add(new StoredField(accessor.name, value));
+				}
+
+				@Override
+				public void longValue(FieldAccessor accessor, long value) {
+					doc.add(accessor.type == FieldType.INT ? new StoredField(accessor.name, (int) value) : new StoredField(accessor.name, value));
+				}
+
+				@Override
+				public void doubleValue(FieldAccessor accessor, double value) {
+					doc.add(accessor.type == FieldType.FLOAT ? new StoredField(accessor.name, (float) value) : new StoredField(accessor.name, value));
+				}
+			});
+		}
+		return renderHighlight(doc, highlightRender);
+	}
+
+	/**
+	 * 选择的字段是否都有DocValues，是则可以按列读取而不解压存储字段
+	 *
+	 * @param selectFieldSet 选择的字段
+	 * @return boolean
+	 */
+	public boolean isDocValuesProjection(Set<String> selectFieldSet) {
+		if (null == selectFieldSet || selectFieldSet.isEmpty()) {
+			return false;
+		}
+		for (String fieldName : selectFieldSet) {
+			FieldAccessor accessor = nameAccessorMap.get(fieldName);
+			if (null == accessor || accessor.docValuesType == DocValuesType.NONE) {
+				return false;
 			}
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw EmbeddedLuceneException.of(e);
 		}
+		return true;
 	}
 
-	public T toJavaBean(Map<String, String> map) {
-		T res;
-		boolean idSetFlag = false;
-		try {
-			res = constructor.newInstance();
-			for (String key : map.keySet()) {
-				if (!idSetFlag && key.equals(idFieldName)) {
-					Object value = CLASS_DOC_ID_CACHE.get(docClass).type().get(map.get(key), idField.getType());
-					ID_SETTER_CACHE.get(idField).invoke(res, value);
-					idSetFlag = true;
+	/**
+	 * 批量转换为javabean，选择的字段都有DocValues时按列读取，不解压存储字段
+	 *
+	 * @param searcher        searcher
+	 * @param scoreDocs       命中
+	 * @param highlightRender 高亮
+	 * @param selectFieldSet  选择的字段，为空时加载全部
+	 * @return javabean，顺序与命中一致
+	 * @throws IOException IOException
+	 */
+	public List<T> toJavaBeans(IndexSearcher searcher, ScoreDoc[] scoreDocs, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		if (isDocValuesProjection(selectFieldSet)) {
+			return readDocValues(searcher, scoreDocs, highlightRender, selectFieldSet);
+		}
+		List<T> res = new ArrayList<>(scoreDocs.length);
+		for (ScoreDoc scoreDoc : scoreDocs) {
+			res.add(toJavaBean(searcher, scoreDoc.doc, highlightRender, selectFieldSet));
+		}
+		return res;
+	}
+
+	/**
+	 * 从DocValues按列读取选择的字段，命中按docId排序后逐段顺序读取，返回顺序与命中顺序一致
+	 */
+	private List<T> readDocValues(IndexSearcher searcher, ScoreDoc[] scoreDocs, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		FieldAccessor[] selected = selectFieldSet.stream().map(nameAccessorMap::get).toArray(FieldAccessor[]::new);
+		// 高位docId，低位命中下标，排序后无需装箱
+		long[] keys = new long[scoreDocs.length];
+		for (int i = 0; i < scoreDocs.length; i++) {
+			keys[i] = ((long) scoreDocs[i].doc << 32) | i;
+		}
+		Arrays.sort(keys);
+
+		Object[] beans = new Object[scoreDocs.length];
+		List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+		LeafReaderContext leaf = null;
+		DocIdSetIterator[] iterators = new DocIdSetIterator[selected.length];
+		for (long key : keys) {
+			int doc = (int) (key >>> 32);
+			if (null == leaf || doc >= leaf.docBase + leaf.reader().maxDoc()) {
+				leaf = leaves.get(ReaderUtil.subIndex(doc, leaves));
+				for (int i = 0; i < selected.length; i++) {
+					switch (selected[i].docValuesType) {
+						case NUMERIC:
+							iterators[i] = DocValues.getNumeric(leaf.reader(), selected[i].name);
+							break;
+						case SORTED_NUMERIC:
+							iterators[i] = DocValues.getSortedNumeric(leaf.reader(), selected[i].name);
+							break;
+						default:
+							iterators[i] = DocValues.getSorted(leaf.reader(), selected[i].name);
+					}
+				}
+			}
+			int target = doc - leaf.docBase;
+			T bean = instantiator.get();
+			for (int i = 0; i < selected.length; i++) {
+				FieldAccessor accessor = selected[i];
+				if (iterators[i] instanceof NumericDocValues) {
+					NumericDocValues values = (NumericDocValues) iterators[i];
+					if (values.advanceExact(target)) {
+						accessor.read(bean, values.longValue());
+					}
+				} else if (iterators[i] instanceof SortedNumericDocValues) {
+					SortedNumericDocValues values = (SortedNumericDocValues) iterators[i];
+					if (values.advanceExact(target)) {
+						long sortable = values.nextValue();
+						accessor.read(bean, accessor.type == FieldType.FLOAT
+								? NumericUtils.sortableIntToFloat((int) sortable)
+								: NumericUtils.sortableLongToDouble(sortable));
+					}
 				} else {
-					Field field = nameFieldMap.get(key);
-					FieldType type = DOC_FIELD_CACHE.get(field).type();
-					FIELD_SETTER_CACHE.get(field).invoke(res, type.get(map.get(key), field.getType()));
+					SortedDocValues values = (SortedDocValues) iterators[i];
+					if (values.advanceExact(target)) {
+						BytesRef bytes = values.binaryValue();
+						// KEYWORD写入UTF-8，扩展字段与FieldFactory写入时的String.getBytes()使用相同的字符集
+						String text = accessor.type == FieldType.KEYWORD
+								? bytes.utf8ToString()
+								: new String(bytes.bytes, bytes.offset, bytes.length, Charset.defaultCharset());
+						if (null != highlightRender && !accessor.name.equals(idFieldName)) {
+							String rendered = highlightRender.render(accessor.name, text);
+							text = null == rendered ? text : rendered;
+						}
+						accessor.read(bean, text);
+					}
 				}
 			}
-			return res;
-		} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-			throw EmbeddedLuceneException.of(e);
+			beans[(int) key] = bean;
+		}
+		@SuppressWarnings("unchecked")
+		List<T> res = (List<T>) Arrays.asList(beans);
+		return res;
+	}
+
+	public void setVal(T t, String fieldName, Object val) {
+		FieldAccessor accessor = nameAccessorMap.get(fieldName);
+		ElAssert.nonNull(accessor, "filedName : " + fieldName + " , is not exist");
+		accessor.set(t, val);
+	}
+
+	public T toJavaBean(Map<String, String> map) {
+		if (null != mapper) {
+			return mapper.toJavaBean(map);
+		}
+		T res = instantiator.get();
+		for (Map.Entry<String, String> entry : map.entrySet()) {
+			FieldAccessor accessor = nameAccessorMap.get(entry.getKey());
+			if (null != accessor) {
+				accessor.read(res, entry.getValue());
+			}
 		}
+		return res;
 	}
 
 	/**
@@ -292,10 +673,67 @@ public class DocFactory<T> {
 	 * @return javabean
 	 */
 	public Map<String, String> toMap(Document doc) {
+		BytesRef source = null == sourceCodec ? null : doc.getBinaryValue(SourceCodec.FIELD_NAME);
+		if (null != source) {
+			Map<String, String> map = new HashMap<>((fieldAccessors.length + 1) * 2);
+			sourceCodec.decode(source, new SourceCodec.Sink() {
+				@Override
+				public boolean accept(FieldAccessor accessor) {
+					return true;
+				}
+
+				@Override
+				public void stringValue(FieldAccessor accessor, String value) {
+					map.put(accessor.name, value);
+				}
+
+				@Override
+				public void longValue(FieldAccessor accessor, long value) {
+					map.put(accessor.name, String.valueOf(value));
+				}
+
+				@Override
+				public void doubleValue(FieldAccessor accessor, double value) {
+					map.put(accessor.name, accessor.type == FieldType.FLOAT ? String.valueOf((float) value) : String.valueOf(value));
+				}
+			});
+			return map;
+		}
 		return doc.getFields().stream()
 				.collect(Collectors.toMap(IndexableField::name, IndexableField::stringValue));
 	}
 
+	/**
+	 * 复制javabean中映射的字段，与调用方的对象不再共享状态
+	 *
+	 * @param data javabean
+	 * @return 副本
+	 */
+	public T copy(T data) {
+		return toJavaBean(toStringMap(data));
+	}
+
+	/**
+	 * javabean => 可以由{@link #toJavaBean(Map)}还原的字符串map，包含未存储的字段
+	 *
+	 * @param data javabean
+	 * @return map
+	 */
+	public Map<String, String> toStringMap(T data) {
+		Map<String, String> map = new HashMap<>((fieldAccessors.length + 1) * 2);
+		Object id = idAccessor.get(data);
+		if (Objects.nonNull(id)) {
+			map.put(idFieldName, idAccessor.type.format(id));
+		}
+		for (FieldAccessor accessor : fieldAccessors) {
+			Object val = accessor.get(data);
+			if (Objects.nonNull(val)) {
+				map.put(accessor.name, accessor.type.format(val));
+			}
+		}
+		return map;
+	}
+
 	/**
 	 * 高亮填充
 	 *
@@ -308,11 +746,11 @@ public class DocFactory<T> {
 			List<IndexableField> fields = doc.getFields();
 			for (IndexableField indexableField : fields) {
 				String name = indexableField.name();
-				Field columnField = nameFieldMap.get(name);
+				FieldAccessor accessor = nameAccessorMap.get(name);
 				String value = indexableField.stringValue();
-				if (null != columnField && null != value) {
-					FieldType type = DOC_FIELD_CACHE.get(columnField).type();
-					boolean render = type == FieldType.TEXT || type == FieldType.STRING;
+				if (null != accessor && !accessor.name.equals(idFieldName) && null != value) {
+					FieldType type = accessor.type;
+					boolean render = type == FieldType.TEXT || type == FieldType.STRING || type == FieldType.KEYWORD;
 					if (render) {
 						org.apache.lucene.document.Field field = (org.apache.lucene.document.Field) indexableField;
 						String renderStr = highlightRender.render(name, value);
@@ -333,13 +771,21 @@ public class DocFactory<T> {
 	 * @return id
 	 */
 	public Serializable getId(T entity) {
-		Field field = CLASS_ID_CACHE.get(docClass);
-		Method getter = ID_GETTER_CACHE.get(field);
-		try {
-			return (Serializable) getter.invoke(entity);
-		} catch (IllegalAccessException | InvocationTargetException e) {
-			throw EmbeddedLuceneException.of(e);
+		return (Serializable) idAccessor.get(entity);
+	}
+
+	/**
+	 * id是否为实体id字段的类型(基本类型按包装类型比较)，类型一致时hash才与实体的id一致
+	 *
+	 * @param id id
+	 * @return boolean
+	 */
+	public boolean isIdType(Serializable id) {
+		Class<?> idType = CLASS_ID_CACHE.get(docClass).getType();
+		if (idType.isPrimitive()) {
+			idType = MethodType.methodType(idType).wrap().returnType();
 		}
+		return idType.isInstance(id);
 	}
 
 	/**
@@ -399,8 +845,8 @@ public class DocFactory<T> {
 		return AUTO_FILL_CACHE.get(docClass);
 	}
 
-	public ElDocument<T> getElDocument(int docId, Source<T> source, HighlightRender highlightRender, Set<String> selectFieldSet) {
-		return new ElDocument<>(docId, source, highlightRender, selectFieldSet);
+	public ElDocument<T> getElDocument(int docId, SearcherLease lease, HighlightRender highlightRender, Set<String> selectFieldSet) {
+		return new ElDocument<>(docId, lease, this, highlightRender, selectFieldSet);
 	}
 
 }
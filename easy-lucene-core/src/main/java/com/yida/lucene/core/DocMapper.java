@@ -0,0 +1,71 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.constant.IndexFieldTemplate;
+import org.apache.lucene.document.Document;
+
+import java.util.Map;
+
+/**
+ * 编译期生成的文档映射，由easy-lucene-processor为每个含{@link com.yida.lucene.annotation.DocId}的实体生成{@code 实体类名 + DocMapper}<br/>
+ * 存在时DocFactory使用其直接调用getter/setter的代码，不再通过反射或LambdaMetafactory访问字段
+ *
+ * @author yida
+ * @date 2024/10/16 9:30
+ */
+public interface DocMapper<T> {
+
+	/**
+	 * 生成类名的后缀
+	 */
+	String SUFFIX = "DocMapper";
+
+	/**
+	 * 创建实体
+	 *
+	 * @return T
+	 */
+	T newInstance();
+
+	/**
+	 * 映射的字段名，第一个为id，下标与{@link #get(Object, int)}、{@link #set(Object, int, Object)}一致
+	 *
+	 * @return 字段名
+	 */
+	String[] fieldNames();
+
+	/**
+	 * 获取字段值
+	 *
+	 * @param bean  实体
+	 * @param index 字段下标
+	 * @return 字段值
+	 */
+	Object get(T bean, int index);
+
+	/**
+	 * 设置字段值
+	 *
+	 * @param bean  实体
+	 * @param index 字段下标
+	 * @param value 字段值，基本类型为null时忽略
+	 */
+	void set(T bean, int index, Object value);
+
+	/**
+	 * 用当前线程复用的字段模板将实体的各字段写入文档，不含紧凑存储的_source
+	 *
+	 * @param bean      实体
+	 * @param templates 字段模板，下标与{@link #fieldNames()}一致
+	 * @param document  文档
+	 */
+	void fill(T bean, IndexFieldTemplate[] templates, Document document);
+
+	/**
+	 * 字符串map还原实体
+	 *
+	 * @param map 字段名 => FieldType.format后的字符串
+	 * @return T
+	 */
+	T toJavaBean(Map<String, String> map);
+
+}
@@ -0,0 +1,202 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.exception.EmbeddedLuceneException;
+import com.yida.lucene.repository.hightlight.HighlightRender;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TwoPhaseIterator;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.Bits;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 流式游标，整个遍历期间持有同一个IndexReader，每次只加载一批文档，内存占用与结果总数无关<br/>
+ * 无排序时逐段按docId顺序遍历匹配的文档，不打分也不收集全部命中；有排序时内部通过searchAfter分批获取<br/>
+ * 遍历结束后自动释放，提前结束时需要调用close，推荐配合try-with-resources使用
+ * <pre>
+ * try (Stream&lt;Article&gt; stream = repository.stream(wrapper)) {
+ *     stream.forEach(...);
+ * }
+ * </pre>
+ *
+ * @author yida
+ * @date 2024/10/16 14:20
+ */
+public class ElCursor<T> implements Iterator<T>, Closeable {
+
+	private final DocFactory<T> docFactory;
+	private final SearcherLease lease;
+	private final IndexSearcher searcher;
+	private final Query query;
+	private final Sort sort;
+	private final int batchSize;
+	private final HighlightRender highlightRender;
+	private final Set<String> selectFieldSet;
+
+	/**
+	 * 无排序时的逐段遍历状态
+	 */
+	private Weight weight;
+	private Iterator<LeafReaderContext> leaves;
+	private LeafReaderContext leaf;
+	private DocIdSetIterator leafIterator;
+
+	/**
+	 * 有排序时上一批的最后一个命中
+	 */
+	private ScoreDoc after;
+
+	private List<T> batch = Collections.emptyList();
+	private int position;
+	private boolean exhausted;
+	private boolean closed;
+
+	ElCursor(DocFactory<T> docFactory, SearcherLease lease, Query query, Sort sort, int batchSize,
+			 HighlightRender highlightRender, Set<String> selectFieldSet) {
+		this.docFactory = docFactory;
+		this.lease = lease;
+		this.searcher = lease.getSearcher();
+		this.query = query;
+		this.sort = sort;
+		this.batchSize = batchSize;
+		this.highlightRender = highlightRender;
+		this.selectFieldSet = selectFieldSet;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (position < batch.size()) {
+			return true;
+		}
+		if (exhausted || closed) {
+			close();
+			return false;
+		}
+		try {
+			batch = nextBatch();
+		} catch (IOException e) {
+			close();
+			throw EmbeddedLuceneException.of(e);
+		}
+		position = 0;
+		if (batch.isEmpty()) {
+			close();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return batch.get(position++);
+	}
+
+	/**
+	 * 转换为Stream，Stream关闭时释放游标
+	 *
+	 * @return Stream
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::close);
+	}
+
+	private List<T> nextBatch() throws IOException {
+		ScoreDoc[] scoreDocs = null == sort ? nextDocs() : nextSortedDocs();
+		if (scoreDocs.length < batchSize) {
+			exhausted = true;
+		}
+		if (scoreDocs.length == 0) {
+			return Collections.emptyList();
+		}
+		return docFactory.toJavaBeans(searcher, scoreDocs, highlightRender, selectFieldSet);
+	}
+
+	private ScoreDoc[] nextSortedDocs() throws IOException {
+		TopDocs topDocs = searcher.searchAfter(after, query, batchSize, sort);
+		ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+		if (scoreDocs.length != 0) {
+			after = scoreDocs[scoreDocs.length - 1];
+		}
+		return scoreDocs;
+	}
+
+	/**
+	 * 逐段遍历匹配的文档，跳过已删除的文档
+	 */
+	private ScoreDoc[] nextDocs() throws IOException {
+		if (null == weight) {
+			weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+			leaves = searcher.getIndexReader().leaves().iterator();
+		}
+		ScoreDoc[] buffer = new ScoreDoc[batchSize];
+		int size = 0;
+		while (size < batchSize) {
+			if (null == leafIterator) {
+				if (!leaves.hasNext()) {
+					break;
+				}
+				leaf = leaves.next();
+				Scorer scorer = weight.scorer(leaf);
+				if (null == scorer) {
+					continue;
+				}
+				// 两阶段查询(如DocValues范围查询、短语查询)的iterator只是近似结果，需要逐个校验
+				TwoPhaseIterator twoPhase = scorer.twoPhaseIterator();
+				leafIterator = null == twoPhase ? scorer.iterator() : TwoPhaseIterator.asDocIdSetIterator(twoPhase);
+			}
+			Bits liveDocs = leaf.reader().getLiveDocs();
+			int doc;
+			while (size < batchSize && (doc = leafIterator.nextDoc()) != DocIdSetIterator.NO_MORE_DOCS) {
+				if (null == liveDocs || liveDocs.get(doc)) {
+					buffer[size++] = new ScoreDoc(leaf.docBase + doc, Float.NaN);
+				}
+			}
+			if (size < batchSize) {
+				leafIterator = null;
+			}
+		}
+		if (size == batchSize) {
+			return buffer;
+		}
+		ScoreDoc[] res = new ScoreDoc[size];
+		System.arraycopy(buffer, 0, res, 0, size);
+		return res;
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		batch = Collections.emptyList();
+		try {
+			lease.close();
+		} catch (IOException e) {
+			throw EmbeddedLuceneException.of(e);
+		}
+	}
+
+}
@@ -4,42 +4,65 @@ import com.yida.lucene.repository.hightlight.HighlightRender;
 import lombok.SneakyThrows;
 import org.apache.lucene.document.Document;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * 懒加载模式
+ * 懒加载模式<br/>
+ * 持有命中时的IndexSearcher租约，首次加载文档后归还；不加载文档时需要调用close归还，
+ * 查询返回的文档超过有效期仍未加载时由Source自动归还，避免旧段文件无法删除
  *
  * @author yida
  * @date 2024/09/18 4:32
  */
-public class ElDocument<T> {
+public class ElDocument<T> implements Closeable {
 
 	private final int docId;
-	private final Source<T> source;
 	private final DocFactory<T> docFactory;
 	private final HighlightRender highlightRender;
 	private final Set<String> selectFieldSet;
 
+	/**
+	 * 租约的到期时间，Source跟踪未加载的文档，到期后归还
+	 */
+	private final long expireAt;
+	private final Set<ElDocument<T>> pending;
+
+	private SearcherLease lease;
 	private Document document;
 	private Map<String, String> map;
 	private T bean;
 
-	public ElDocument(int docId, Source<T> source, HighlightRender highlightRender, Set<String> selectFieldSet) {
+	public ElDocument(int docId, SearcherLease lease, DocFactory<T> docFactory, HighlightRender highlightRender, Set<String> selectFieldSet) {
+		this(docId, lease, docFactory, highlightRender, selectFieldSet, Long.MAX_VALUE, null);
+	}
+
+	ElDocument(int docId, SearcherLease lease, DocFactory<T> docFactory, HighlightRender highlightRender, Set<String> selectFieldSet,
+			   long expireAt, Set<ElDocument<T>> pending) {
 		this.docId = docId;
-		this.source = source;
-		this.docFactory = source.getDocFactory();
+		this.lease = lease;
+		this.docFactory = docFactory;
 		this.highlightRender = highlightRender;
 		this.selectFieldSet = selectFieldSet;
+		this.expireAt = expireAt;
+		this.pending = pending;
+		if (null != pending) {
+			pending.add(this);
+		}
 	}
 
 	@SneakyThrows
-	public Document getDocument() {
+	public synchronized Document getDocument() {
 		if (null == document) {
-			if (null == selectFieldSet || selectFieldSet.isEmpty()) {
-				document = docFactory.renderHighlight(source.getSearchHolder().getIndexSearcher().doc(docId), highlightRender);
-			} else {
-				document = docFactory.renderHighlight(source.getSearchHolder().getIndexSearcher().doc(docId, selectFieldSet), highlightRender);
+			if (null == lease) {
+				throw new IllegalStateException("ElDocument has been closed or expired before loaded");
+			}
+			try {
+				document = docFactory.loadDocument(lease.getSearcher(), docId, highlightRender, selectFieldSet);
+			} finally {
+				close();
 			}
 		}
 		return document;
@@ -52,11 +75,50 @@ public class ElDocument<T> {
 		return map;
 	}
 
-	public T getJavaBean() {
+	@SneakyThrows
+	public synchronized T getJavaBean() {
 		if (null == bean) {
-			bean = docFactory.toJavaBean(getMap());
+			if (null != map) {
+				bean = docFactory.toJavaBean(map);
+			} else if (null != document) {
+				bean = docFactory.toJavaBean(docFactory.toMap(document));
+			} else {
+				// 未加载过Document时直接解码存储字段
+				if (null == lease) {
+					throw new IllegalStateException("ElDocument has been closed or expired before loaded");
+				}
+				try {
+					bean = docFactory.toJavaBean(lease.getSearcher(), docId, highlightRender, selectFieldSet);
+				} finally {
+					close();
+				}
+			}
 		}
 		return bean;
 	}
 
+	/**
+	 * 到期时归还租约
+	 *
+	 * @param now 当前时间
+	 * @throws IOException IOException
+	 */
+	synchronized void closeIfExpired(long now) throws IOException {
+		if (now >= expireAt) {
+			close();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (null != lease) {
+			SearcherLease current = lease;
+			lease = null;
+			if (null != pending) {
+				pending.remove(this);
+			}
+			current.close();
+		}
+	}
+
 }
@@ -1,5 +1,6 @@
 package com.yida.lucene.core;
 
+import com.yida.lucene.constant.IndexFieldTemplate;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.repository.RepositoryInterceptor;
 import com.yida.lucene.transaction.ElTransactionManager;
@@ -8,18 +9,23 @@ import com.yida.lucene.transaction.XaSourcePool;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.index.IndexWriter;
 
 import java.io.Closeable;
-import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * @author yida
@@ -56,11 +62,13 @@ public class EmbeddedLucene extends SourceFactory implements XaSourcePool, Close
 
 		txManager = new ElTransactionManager(this);
 
+		worker = config.getWorker();
+
+		IndexFieldTemplate.setDateZone(config.getDateZone());
+
 		// create source
 		buildSource();
 
-		worker = config.getWorker();
-
 		// register shutdown hook
 		Runtime.getRuntime().addShutdownHook(new Thread(this::close));
 
@@ -69,38 +77,74 @@ public class EmbeddedLucene extends SourceFactory implements XaSourcePool, Close
 		log.debug("EmbeddedLucene started successfully");
 	}
 
-	@SuppressWarnings({"rawtypes", "unchecked"})
+	/**
+	 * 并行创建所有Source，任一失败时关闭已创建的Source<br/>
+	 * 使用独立的线程池，避免打开时的预热查询与打开任务争用worker而互相等待
+	 */
 	private void buildSource() {
 		RepositoryInterceptor repositoryInterceptor = new RepositoryInterceptor();
 		repositoryInterceptor.setHandlers(config.getRepositoryHandlers());
-		config.getDocNameMap().keySet().stream()
-				.map(docClass -> {
-					// doc class must need no args constructor
-					Constructor constructor;
-					try {
-						constructor = docClass.getConstructor();
-					} catch (NoSuchMethodException e) {
-						throw EmbeddedLuceneException.of(e);
-					}
-					DocFactory<?> docFactory = DocFactory.getDocFactory(docClass, constructor);
-
-					Map<Class<?>, Analyzer> classAnalyzerMap = config.getClassAnalyzerMap();
-					Analyzer analyzer = classAnalyzerMap.get(docClass);
-					if (Objects.isNull(analyzer)) {
-						// 根据FieldType组装Analyzer
-						analyzer = docFactory.getAnalyzer(config.getFieldTypeAnalyzerMap());
-					}
-
-					return this.createSource(
-							docFactory,
-							config.getIndexPath(),
-							config.getDocNameMap().get(docClass),
-							analyzer,
-							repositoryInterceptor,
-							txManager
-					);
-				})
-				.forEach(source -> sources.put(source.getDocClass(), source));
+		Set<Class<?>> docClasses = config.getDocNameMap().keySet();
+		if (docClasses.isEmpty()) {
+			return;
+		}
+		int threadNum = Math.min(docClasses.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService opener = Executors.newFixedThreadPool(threadNum, r -> {
+			Thread thread = new Thread(r, "Embedded-Lucene-Open-" + OPENER_NUMBER.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<CompletableFuture<Source<?>>> futures = docClasses.stream()
+					.map(docClass -> CompletableFuture.<Source<?>>supplyAsync(() -> buildSource(docClass, repositoryInterceptor), opener))
+					.collect(Collectors.toList());
+			Throwable error = null;
+			for (CompletableFuture<Source<?>> future : futures) {
+				try {
+					Source<?> source = future.join();
+					sources.put(source.getDocClass(), source);
+				} catch (CompletionException e) {
+					error = null == error ? e.getCause() : error;
+				}
+			}
+			if (null != error) {
+				sources.values().forEach(Source::close);
+				sources.clear();
+				throw EmbeddedLuceneException.of(error);
+			}
+		} finally {
+			opener.shutdown();
+		}
+	}
+
+	private static final AtomicInteger OPENER_NUMBER = new AtomicInteger(1);
+
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private Source<?> buildSource(Class<?> docClass, RepositoryInterceptor repositoryInterceptor) {
+		// doc class must need no args constructor
+		Constructor constructor;
+		try {
+			constructor = docClass.getConstructor();
+		} catch (NoSuchMethodException e) {
+			throw EmbeddedLuceneException.of(e);
+		}
+		DocFactory<?> docFactory = DocFactory.getDocFactory(docClass, constructor);
+
+		Map<Class<?>, Analyzer> classAnalyzerMap = config.getClassAnalyzerMap();
+		Analyzer analyzer = classAnalyzerMap.get(docClass);
+		if (Objects.isNull(analyzer)) {
+			// 根据FieldType组装Analyzer
+			analyzer = docFactory.getAnalyzer(config.getFieldTypeAnalyzerMap());
+		}
+
+		return this.createSource(
+				docFactory,
+				config.getIndexPath(),
+				config.getDocNameMap().get(docClass),
+				analyzer,
+				repositoryInterceptor,
+				txManager
+		);
 	}
 
 	@Override
@@ -108,6 +152,11 @@ public class EmbeddedLucene extends SourceFactory implements XaSourcePool, Close
 		return worker;
 	}
 
+	@Override
+	public EmbeddedLuceneConfig getConfig() {
+		return config;
+	}
+
 	@Override
 	public Set<Class<?>> getLoadedDocClass() {
 		return sources.keySet();
@@ -130,18 +179,26 @@ public class EmbeddedLucene extends SourceFactory implements XaSourcePool, Close
 			worker.awaitTermination(5, TimeUnit.MINUTES);
 		} catch (InterruptedException ignored) {
 		}
-		sources.forEach((k, v) -> {
-			IndexWriter indexWriter = v.getWriter();
-			try {
-				indexWriter.close();
-			} catch (IOException e) {
-				throw EmbeddedLuceneException.of(e);
-			}
-		});
+		sources.forEach((k, v) -> v.close());
 		sources.clear();
 		stopped = true;
 	}
 
+	/**
+	 * 在线增量备份所有文档类的索引，每个文档类备份到以docName命名的子目录
+	 *
+	 * @param target 目标目录
+	 * @return 复制的文件数
+	 * @see Source#backup(Path)
+	 */
+	public int backup(Path target) {
+		int copied = 0;
+		for (Map.Entry<Class<?>, Source<?>> entry : sources.entrySet()) {
+			copied += entry.getValue().backup(target.resolve(config.getDocNameMap().get(entry.getKey())));
+		}
+		return copied;
+	}
+
 	@Override
 	public Collection<XaSource<?>> getXaSources() {
 		return xaSources.values();
@@ -7,6 +7,7 @@ import lombok.Getter;
 import org.apache.lucene.analysis.Analyzer;
 
 import java.io.File;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +34,102 @@ public class EmbeddedLuceneConfig {
 	private final Map<Class<?>, Analyzer> classAnalyzerMap = new HashMap<>();
 	private final Map<FieldType, Analyzer> fieldTypeAnalyzerMap = new HashMap<>();
 	private final List<RepositoryHandler> repositoryHandlers = new ArrayList<>();
+	private final Map<Class<?>, List<SearcherWarmer>> classWarmerMap = new HashMap<>();
+
+	/**
+	 * 文档类 => 分片数，未配置时不分片
+	 */
+	private final Map<Class<?>, Integer> classShardsMap = new HashMap<>();
+
+	/**
+	 * 文档类 => 索引目录提供者，未配置时根据运行环境自动选择
+	 */
+	private final Map<Class<?>, DirectoryProvider> classDirectoryMap = new HashMap<>();
+
+	/**
+	 * 全局IndexWriter调优参数
+	 */
+	private IndexWriterOptions indexWriterOptions = new IndexWriterOptions();
+
+	/**
+	 * 文档类 => IndexWriter调优参数，覆盖全局参数
+	 */
+	private final Map<Class<?>, IndexWriterOptions> classIndexWriterOptionsMap = new HashMap<>();
+
+	/**
+	 * 近实时搜索最大允许的数据延迟(毫秒)，后台线程至少按此间隔刷新IndexSearcher
+	 */
+	private long maxStaleMillis = 100L;
+
+	/**
+	 * 懒加载文档(ElDocument)持有IndexReader的最长时间(毫秒)，到期仍未加载的文档归还租约
+	 */
+	private long lazyDocumentKeepAliveMillis = 10_000L;
+
+	/**
+	 * 每个文档类最多同时打开的时间点会话数，达到后拒绝新的会话
+	 */
+	private int maxPointInTimes = 1000;
+
+	/**
+	 * 组提交窗口(毫秒)，窗口内完成的事务共享一次IndexWriter.commit，0表示不开启
+	 */
+	private long groupCommitWindowMillis = 0L;
+
+	/**
+	 * 组提交最大事务数，达到后不等待窗口结束立即提交
+	 */
+	private int groupCommitMaxBatch = 32;
+
+	/**
+	 * 是否开启操作日志，开启后事务提交只持久化操作日志，IndexWriter.commit按时间或日志大小执行
+	 */
+	private boolean operationLogEnabled = false;
+
+	/**
+	 * 开启操作日志时IndexWriter.commit的间隔(毫秒)
+	 */
+	private long flushIntervalMillis = 5000L;
+
+	/**
+	 * 开启操作日志时触发IndexWriter.commit的日志大小(字节)
+	 */
+	private long flushThresholdBytes = 64L * 1024 * 1024;
+
+	/**
+	 * 是否延迟打开Source，开启后在第一次读写时才打开IndexWriter及IndexReader
+	 */
+	private boolean lazySourceOpen = false;
+
+	/**
+	 * 索引发布目录，设置后作为leader定时将各文档类最新的提交发布到该目录下以docName命名的子目录
+	 */
+	private File replicationPublishPath;
+
+	/**
+	 * leader的索引发布目录，设置后作为follower只读打开索引，定时从该目录复制新的段文件
+	 */
+	private File replicationFollowPath;
+
+	/**
+	 * leader发布或follower拉取的间隔(毫秒)
+	 */
+	private long replicationIntervalMillis = 1000L;
+
+	/**
+	 * 是否只读附加到已有的索引，开启后不打开IndexWriter，定时通过openIfChanged读取其他进程的新提交
+	 */
+	private boolean readOnlyAttach = false;
+
+	/**
+	 * 只读附加时检查新提交的间隔(毫秒)
+	 */
+	private long readOnlyRefreshIntervalMillis = 1000L;
+
+	/**
+	 * DATE类型LocalDateTime、LocalDate与毫秒时间戳互转的时区，默认为系统时区
+	 */
+	private ZoneId dateZone = ZoneId.systemDefault();
 
 	private EmbeddedLuceneConfig() {
 	}
@@ -51,6 +148,85 @@ public class EmbeddedLuceneConfig {
 			return this;
 		}
 
+		public Builder maxStaleMillis(long maxStaleMillis) {
+			ElAssert.isTrue(maxStaleMillis > 0, "maxStaleMillis must be greater than 0");
+			target.maxStaleMillis = maxStaleMillis;
+			return this;
+		}
+
+		public Builder lazyDocumentKeepAliveMillis(long keepAliveMillis) {
+			ElAssert.isTrue(keepAliveMillis > 0, "lazyDocumentKeepAliveMillis must be greater than 0");
+			target.lazyDocumentKeepAliveMillis = keepAliveMillis;
+			return this;
+		}
+
+		public Builder maxPointInTimes(int maxPointInTimes) {
+			ElAssert.isTrue(maxPointInTimes > 0, "maxPointInTimes must be greater than 0");
+			target.maxPointInTimes = maxPointInTimes;
+			return this;
+		}
+
+		public Builder groupCommit(long windowMillis, int maxBatch) {
+			ElAssert.isTrue(windowMillis >= 0, "groupCommit windowMillis must not be negative");
+			ElAssert.isTrue(maxBatch > 0, "groupCommit maxBatch must be greater than 0");
+			target.groupCommitWindowMillis = windowMillis;
+			target.groupCommitMaxBatch = maxBatch;
+			return this;
+		}
+
+		public Builder operationLog(long flushIntervalMillis, long flushThresholdBytes) {
+			ElAssert.isTrue(flushIntervalMillis > 0, "flushIntervalMillis must be greater than 0");
+			ElAssert.isTrue(flushThresholdBytes > 0, "flushThresholdBytes must be greater than 0");
+			target.operationLogEnabled = true;
+			target.flushIntervalMillis = flushIntervalMillis;
+			target.flushThresholdBytes = flushThresholdBytes;
+			return this;
+		}
+
+		public Builder lazySourceOpen(boolean lazySourceOpen) {
+			target.lazySourceOpen = lazySourceOpen;
+			return this;
+		}
+
+		/**
+		 * 作为leader，定时将最新的提交发布到publishPath，供同一主机上其他进程的follower复制
+		 */
+		public Builder replicationPublish(String publishPath, long intervalMillis) {
+			ElAssert.isTrue(intervalMillis > 0, "replication intervalMillis must be greater than 0");
+			target.replicationPublishPath = new File(publishPath);
+			target.replicationIntervalMillis = intervalMillis;
+			return this;
+		}
+
+		/**
+		 * 作为follower，只读打开索引，定时从leader的publishPath复制新的段文件后重新打开IndexReader
+		 */
+		public Builder replicationFollow(String publishPath, long intervalMillis) {
+			ElAssert.isTrue(intervalMillis > 0, "replication intervalMillis must be greater than 0");
+			target.replicationFollowPath = new File(publishPath);
+			target.replicationIntervalMillis = intervalMillis;
+			return this;
+		}
+
+		/**
+		 * 只读附加到由其他进程写入的索引，用于分析、导出等只读任务
+		 */
+		public Builder readOnlyAttach(long refreshIntervalMillis) {
+			ElAssert.isTrue(refreshIntervalMillis > 0, "refreshIntervalMillis must be greater than 0");
+			target.readOnlyAttach = true;
+			target.readOnlyRefreshIntervalMillis = refreshIntervalMillis;
+			return this;
+		}
+
+		/**
+		 * DATE类型的时区，已有索引应与写入时的时区一致，如 ZoneOffset.ofHours(8)
+		 */
+		public Builder dateZone(ZoneId dateZone) {
+			ElAssert.nonNull(dateZone, "dateZone cannot be null");
+			target.dateZone = dateZone;
+			return this;
+		}
+
 		public Builder indexPath(String indexPath) {
 			target.indexPath = new File(indexPath);
 			return this;
@@ -78,6 +254,41 @@ public class EmbeddedLuceneConfig {
 			return this;
 		}
 
+		public Builder registerWarmer(Class<?> docClass, SearcherWarmer warmer) {
+			target.classWarmerMap.computeIfAbsent(docClass, key -> new ArrayList<>()).add(warmer);
+			return this;
+		}
+
+		/**
+		 * 按id的hash将文档类分为多个分片，每个分片拥有独立的IndexWriter，索引创建后不能修改分片数
+		 */
+		public Builder shards(Class<?> docClass, int shards) {
+			ElAssert.isTrue(shards > 0, "shards must be greater than 0");
+			target.classShardsMap.put(docClass, shards);
+			return this;
+		}
+
+		/**
+		 * 配置文档类的索引目录，如 DirectoryProvider.mmap(true).nrtCaching(5, 60)、DirectoryProvider.memory()
+		 */
+		public Builder directory(Class<?> docClass, DirectoryProvider provider) {
+			ElAssert.nonNull(provider, "directory provider cannot be null");
+			target.classDirectoryMap.put(docClass, provider);
+			return this;
+		}
+
+		public Builder indexWriterOptions(IndexWriterOptions options) {
+			ElAssert.nonNull(options, "indexWriterOptions cannot be null");
+			target.indexWriterOptions = options;
+			return this;
+		}
+
+		public Builder indexWriterOptions(Class<?> docClass, IndexWriterOptions options) {
+			ElAssert.nonNull(options, "indexWriterOptions cannot be null");
+			target.classIndexWriterOptionsMap.put(docClass, options);
+			return this;
+		}
+
 		public Builder fieldTypeAnalyzer(FieldType fieldType, Analyzer analyzer) {
 			target.fieldTypeAnalyzerMap.put(fieldType, analyzer);
 			return this;
@@ -95,6 +306,10 @@ public class EmbeddedLuceneConfig {
 
 		public EmbeddedLuceneConfig build() {
 			ElAssert.nonNull(target.indexPath, "indexPath cannot be empty");
+			ElAssert.isTrue(null == target.replicationPublishPath || null == target.replicationFollowPath,
+					"replication publish and follow cannot be both enabled");
+			ElAssert.isTrue(!target.readOnlyAttach || (null == target.replicationPublishPath && null == target.replicationFollowPath),
+					"readOnlyAttach cannot be enabled with replication");
 			target.fillDefaultAnalyzer();
 			target.worker = target.createWorker(threadNum);
 			return target;
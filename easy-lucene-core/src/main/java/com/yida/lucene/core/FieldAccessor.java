@@ -0,0 +1,279 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.constant.FieldType;
+import com.yida.lucene.constant.IndexFieldTemplate;
+import com.yida.lucene.exception.EmbeddedLuceneException;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.index.DocValuesType;
+import org.apache.lucene.index.IndexableField;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 字段描述，预先解析字段的FieldType、存储方式及getter/setter<br/>
+ * getter/setter通过LambdaMetafactory生成直接调用的函数，无法生成时(如类或方法不可访问)退回反射调用
+ *
+ * @author yida
+ * @date 2024/10/14 9:48
+ */
+final class FieldAccessor {
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	final Field field;
+	final String name;
+	final FieldType type;
+	final boolean store;
+	final Class<? extends IndexableField>[] extensionFields;
+	/**
+	 * 字段的DocValues类型，可以不读存储字段直接按列读取
+	 */
+	final DocValuesType docValuesType;
+	private final Function<Object, Object> getter;
+	private final BiConsumer<Object, Object> setter;
+
+	FieldAccessor(Field field, FieldType type, boolean store, Class<? extends IndexableField>[] extensionFields, Method getter, Method setter) {
+		this(field, type, store, extensionFields, createGetter(field, getter), createSetter(field, setter));
+	}
+
+	/**
+	 * 使用编译期生成的{@link DocMapper}访问字段
+	 */
+	@SuppressWarnings("unchecked")
+	FieldAccessor(Field field, FieldType type, boolean store, Class<? extends IndexableField>[] extensionFields, DocMapper<?> mapper, int index) {
+		this(field, type, store, extensionFields,
+				bean -> ((DocMapper<Object>) mapper).get(bean, index),
+				(bean, value) -> ((DocMapper<Object>) mapper).set(bean, index, value));
+	}
+
+	private FieldAccessor(Field field, FieldType type, boolean store, Class<? extends IndexableField>[] extensionFields,
+						  Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+		this.field = field;
+		this.name = field.getName();
+		this.type = type;
+		this.store = store;
+		this.extensionFields = extensionFields;
+		this.docValuesType = docValuesType(type, extensionFields);
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	Object get(Object bean) {
+		return getter.apply(bean);
+	}
+
+	void set(Object bean, Object value) {
+		setter.accept(bean, value);
+	}
+
+	/**
+	 * 将字段写入文档
+	 *
+	 * @param bean     javabean
+	 * @param document 文档
+	 */
+	void write(Object bean, Document document) {
+		type.set(name, getter.apply(bean), store, document, extensionFields);
+	}
+
+	/**
+	 * 通过可复用的字段模板将字段写入文档
+	 *
+	 * @param bean     javabean
+	 * @param template 字段模板
+	 * @param document 文档
+	 */
+	void write(Object bean, IndexFieldTemplate template, Document document) {
+		template.fill(getter.apply(bean), document);
+	}
+
+	IndexFieldTemplate newTemplate() {
+		return IndexFieldTemplate.create(type, name, store, extensionFields);
+	}
+
+	/**
+	 * 将字符串值转换后写入javabean
+	 *
+	 * @param bean  javabean
+	 * @param value 字符串值
+	 */
+	void read(Object bean, String value) {
+		setter.accept(bean, type.get(value, field.getType()));
+	}
+
+	/**
+	 * 将存储的数值直接转换后写入javabean
+	 *
+	 * @param bean  javabean
+	 * @param value 存储的数值
+	 */
+	void read(Object bean, long value) {
+		setter.accept(bean, type.get(value, field.getType()));
+	}
+
+	/**
+	 * 将存储的浮点数直接转换后写入javabean
+	 *
+	 * @param bean  javabean
+	 * @param value 存储的数值
+	 */
+	void read(Object bean, double value) {
+		setter.accept(bean, type.get(value, field.getType()));
+	}
+
+	private static DocValuesType docValuesType(FieldType type, Class<? extends IndexableField>[] extensionFields) {
+		switch (type) {
+			case DATE:
+			case LONG:
+			case INT:
+				return DocValuesType.NUMERIC;
+			case DOUBLE:
+			case FLOAT:
+				return DocValuesType.SORTED_NUMERIC;
+			case KEYWORD:
+				return DocValuesType.SORTED;
+			case TEXT:
+			case STRING:
+				if (null != extensionFields && Arrays.asList(extensionFields).contains(SortedDocValuesField.class)) {
+					return DocValuesType.SORTED;
+				}
+				return DocValuesType.NONE;
+			default:
+				return DocValuesType.NONE;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> createGetter(Field field, Method getter) {
+		if (Objects.isNull(getter)) {
+			return bean -> {
+				throw EmbeddedLuceneException.of("field " + field.getName() + " of " + field.getDeclaringClass().getName() + " has no getter");
+			};
+		}
+		if (!isPublic(getter)) {
+			return reflectGetter(getter);
+		}
+		try {
+			MethodHandle handle = LOOKUP.unreflect(getter);
+			CallSite site = LambdaMetafactory.metafactory(
+					LOOKUP,
+					"apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					handle,
+					handle.type().wrap());
+			return (Function<Object, Object>) site.getTarget().invoke();
+		} catch (Throwable e) {
+			return reflectGetter(getter);
+		}
+	}
+
+	private static Function<Object, Object> reflectGetter(Method getter) {
+		getter.setAccessible(true);
+		return bean -> {
+			try {
+				return getter.invoke(bean);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw EmbeddedLuceneException.of(e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> createSetter(Field field, Method setter) {
+		if (Objects.isNull(setter)) {
+			return (bean, value) -> {
+				throw EmbeddedLuceneException.of("field " + field.getName() + " of " + field.getDeclaringClass().getName() + " has no setter");
+			};
+		}
+		if (!isPublic(setter)) {
+			return reflectSetter(setter);
+		}
+		try {
+			MethodHandle handle = LOOKUP.unreflect(setter);
+			CallSite site = LambdaMetafactory.metafactory(
+					LOOKUP,
+					"accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class),
+					handle,
+					handle.type().wrap().changeReturnType(void.class));
+			return (BiConsumer<Object, Object>) site.getTarget().invoke();
+		} catch (Throwable e) {
+			return reflectSetter(setter);
+		}
+	}
+
+	private static BiConsumer<Object, Object> reflectSetter(Method setter) {
+		setter.setAccessible(true);
+		return (bean, value) -> {
+			try {
+				setter.invoke(bean, value);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw EmbeddedLuceneException.of(e);
+			}
+		};
+	}
+
+	/**
+	 * 生成的函数只能直接调用public类的public方法
+	 */
+	private static boolean isPublic(Executable executable) {
+		return Modifier.isPublic(executable.getModifiers()) && Modifier.isPublic(executable.getDeclaringClass().getModifiers());
+	}
+
+	/**
+	 * 生成无参构造的调用函数
+	 *
+	 * @param constructor 无参构造
+	 * @param <T>         T
+	 * @return Supplier
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Supplier<T> createInstantiator(Constructor<T> constructor) {
+		if (!isPublic(constructor)) {
+			return reflectInstantiator(constructor);
+		}
+		try {
+			MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+			CallSite site = LambdaMetafactory.metafactory(
+					LOOKUP,
+					"get",
+					MethodType.methodType(Supplier.class),
+					MethodType.methodType(Object.class),
+					handle,
+					handle.type());
+			return (Supplier<T>) site.getTarget().invoke();
+		} catch (Throwable e) {
+			return reflectInstantiator(constructor);
+		}
+	}
+
+	private static <T> Supplier<T> reflectInstantiator(Constructor<T> constructor) {
+		constructor.setAccessible(true);
+		return () -> {
+			try {
+				return constructor.newInstance();
+			} catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+				throw EmbeddedLuceneException.of(e);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.yida.lucene.core;
+
+import lombok.Data;
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.FilterCodec;
+import org.apache.lucene.codecs.StoredFieldsFormat;
+import org.apache.lucene.codecs.lucene87.Lucene87StoredFieldsFormat;
+import org.apache.lucene.index.ConcurrentMergeScheduler;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.TieredMergePolicy;
+
+import java.util.Objects;
+
+/**
+ * IndexWriter调优参数，为null的参数使用Lucene的默认值
+ *
+ * @author yida
+ * @date 2024/10/12 15:40
+ * @see EmbeddedLuceneConfig.Builder#indexWriterOptions(Class, IndexWriterOptions)
+ */
+@Data
+public class IndexWriterOptions {
+
+	/**
+	 * 内存缓冲大小(MB)，达到后flush出新段，默认16
+	 */
+	private Double ramBufferSizeMb;
+
+	/**
+	 * 缓冲的最大文档数，达到后flush出新段，默认不按文档数flush
+	 */
+	private Integer maxBufferedDocs;
+
+	/**
+	 * TieredMergePolicy每层允许的段数，默认10
+	 */
+	private Double segmentsPerTier;
+
+	/**
+	 * TieredMergePolicy合并后段的最大大小(MB)，默认5120
+	 */
+	private Double maxMergedSegmentMb;
+
+	/**
+	 * TieredMergePolicy允许的已删除文档比例，默认33
+	 */
+	private Double deletesPctAllowed;
+
+	/**
+	 * ConcurrentMergeScheduler的合并线程数，默认根据CPU核数及是否为SSD自动决定
+	 */
+	private Integer mergeThreads;
+
+	/**
+	 * 是否使用复合文件，关闭后减少合并IO但增加文件句柄数
+	 */
+	private Boolean useCompoundFile;
+
+	/**
+	 * 存储字段的压缩模式
+	 */
+	private StoredFieldsMode storedFieldsMode;
+
+	public enum StoredFieldsMode {
+		BEST_SPEED,
+		BEST_COMPRESSION
+	}
+
+	/**
+	 * 以当前参数为基础，覆盖override中不为null的参数
+	 *
+	 * @param override override
+	 * @return 新的IndexWriterOptions
+	 */
+	public IndexWriterOptions merge(IndexWriterOptions override) {
+		IndexWriterOptions res = new IndexWriterOptions();
+		res.ramBufferSizeMb = choose(override.ramBufferSizeMb, ramBufferSizeMb);
+		res.maxBufferedDocs = choose(override.maxBufferedDocs, maxBufferedDocs);
+		res.segmentsPerTier = choose(override.segmentsPerTier, segmentsPerTier);
+		res.maxMergedSegmentMb = choose(override.maxMergedSegmentMb, maxMergedSegmentMb);
+		res.deletesPctAllowed = choose(override.deletesPctAllowed, deletesPctAllowed);
+		res.mergeThreads = choose(override.mergeThreads, mergeThreads);
+		res.useCompoundFile = choose(override.useCompoundFile, useCompoundFile);
+		res.storedFieldsMode = choose(override.storedFieldsMode, storedFieldsMode);
+		return res;
+	}
+
+	private static <V> V choose(V override, V base) {
+		return Objects.nonNull(override) ? override : base;
+	}
+
+	/**
+	 * 应用到IndexWriterConfig
+	 *
+	 * @param config IndexWriterConfig
+	 * @return IndexWriterConfig
+	 */
+	IndexWriterConfig apply(IndexWriterConfig config) {
+		if (Objects.nonNull(ramBufferSizeMb)) {
+			config.setRAMBufferSizeMB(ramBufferSizeMb);
+		}
+		if (Objects.nonNull(maxBufferedDocs)) {
+			config.setMaxBufferedDocs(maxBufferedDocs);
+		}
+		if (Objects.nonNull(segmentsPerTier) || Objects.nonNull(maxMergedSegmentMb)
+				|| Objects.nonNull(deletesPctAllowed) || Objects.nonNull(useCompoundFile)) {
+			TieredMergePolicy mergePolicy = new TieredMergePolicy();
+			if (Objects.nonNull(segmentsPerTier)) {
+				mergePolicy.setSegmentsPerTier(segmentsPerTier);
+			}
+			if (Objects.nonNull(maxMergedSegmentMb)) {
+				mergePolicy.setMaxMergedSegmentMB(maxMergedSegmentMb);
+			}
+			if (Objects.nonNull(deletesPctAllowed)) {
+				mergePolicy.setDeletesPctAllowed(deletesPctAllowed);
+			}
+			if (Objects.nonNull(useCompoundFile)) {
+				// 同时作用于flush出的段和合并出的段
+				mergePolicy.setNoCFSRatio(useCompoundFile ? 1.0 : 0.0);
+				config.setUseCompoundFile(useCompoundFile);
+			}
+			config.setMergePolicy(mergePolicy);
+		}
+		if (Objects.nonNull(mergeThreads)) {
+			ConcurrentMergeScheduler mergeScheduler = new ConcurrentMergeScheduler();
+			mergeScheduler.setMaxMergesAndThreads(mergeThreads + 5, mergeThreads);
+			config.setMergeScheduler(mergeScheduler);
+		}
+		if (Objects.nonNull(storedFieldsMode)) {
+			config.setCodec(storedFieldsCodec(storedFieldsMode == StoredFieldsMode.BEST_COMPRESSION
+					? Lucene87StoredFieldsFormat.Mode.BEST_COMPRESSION
+					: Lucene87StoredFieldsFormat.Mode.BEST_SPEED));
+		}
+		return config;
+	}
+
+	/**
+	 * 只替换默认Codec的存储字段格式，沿用默认Codec的名称，读取时按段中记录的压缩模式解码
+	 *
+	 * @param mode 压缩模式
+	 * @return Codec
+	 */
+	private static Codec storedFieldsCodec(Lucene87StoredFieldsFormat.Mode mode) {
+		Codec codec = Codec.getDefault();
+		StoredFieldsFormat storedFieldsFormat = new Lucene87StoredFieldsFormat(mode);
+		return new FilterCodec(codec.getName(), codec) {
+			@Override
+			public StoredFieldsFormat storedFieldsFormat() {
+				return storedFieldsFormat;
+			}
+		};
+	}
+
+}
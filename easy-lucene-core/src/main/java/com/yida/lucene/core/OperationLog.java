@@ -0,0 +1,335 @@
+package com.yida.lucene.core;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * 操作日志(write-ahead log)<br/>
+ * 写操作先追加到内存缓冲，事务提交时批量写入文件并fsync；IndexWriter.commit前切换到新一代日志，提交成功后删除旧日志<br/>
+ * 记录格式：[int 长度][long CRC32][byte 类型][long 事务id][数据]
+ *
+ * @author yida
+ * @date 2024/10/10 14:12
+ */
+@Slf4j
+class OperationLog implements Closeable {
+
+	/**
+	 * IndexWriter提交数据中记录的日志代，该代及之后的日志未包含在提交中
+	 */
+	static final String COMMIT_GENERATION_KEY = "operation_log_generation";
+
+	static final byte ADD = 1;
+	static final byte UPDATE = 2;
+	static final byte REPLACE = 3;
+	static final byte ABORT = 4;
+
+	private static final String FILE_PREFIX = "operation-";
+	private static final String FILE_SUFFIX = ".log";
+	private static final int HEADER_LENGTH = Integer.BYTES + Long.BYTES;
+
+	private final Path dir;
+	private final Object syncLock = new Object();
+	private ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+	private FileChannel channel;
+	private long generation;
+
+	/**
+	 * 当前代已追加的字节数
+	 */
+	private long size;
+
+	OperationLog(Path dir, long generation) throws IOException {
+		this.dir = Files.createDirectories(dir);
+		this.generation = generation;
+		this.channel = open(generation);
+		this.size = channel.size();
+	}
+
+	/**
+	 * 追加一条记录到内存缓冲，调用{@link #sync()}后才持久化
+	 *
+	 * @param type 操作类型
+	 * @param txId 事务id
+	 * @param data 数据
+	 */
+	synchronized void append(byte type, long txId, byte[] data) {
+		ByteBuffer body = ByteBuffer.allocate(Byte.BYTES + Long.BYTES + data.length)
+				.put(type)
+				.putLong(txId)
+				.put(data);
+		CRC32 crc = new CRC32();
+		crc.update(body.array());
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+				.putInt(body.capacity())
+				.putLong(crc.getValue());
+		buffer.write(header.array(), 0, HEADER_LENGTH);
+		buffer.write(body.array(), 0, body.capacity());
+		size += HEADER_LENGTH + body.capacity();
+	}
+
+	/**
+	 * 将缓冲写入文件并fsync，fsync期间不阻塞append
+	 *
+	 * @throws IOException IOException
+	 */
+	void sync() throws IOException {
+		synchronized (syncLock) {
+			ByteArrayOutputStream pending;
+			synchronized (this) {
+				if (buffer.size() == 0) {
+					return;
+				}
+				pending = buffer;
+				buffer = new ByteArrayOutputStream(4096);
+			}
+			ByteBuffer bytes = ByteBuffer.wrap(pending.toByteArray());
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * 切换到新一代日志
+	 *
+	 * @return 新的日志代
+	 * @throws IOException IOException
+	 */
+	long roll() throws IOException {
+		synchronized (syncLock) {
+			sync();
+			synchronized (this) {
+				channel.close();
+				channel = open(generation + 1);
+				generation++;
+				size = 0;
+				return generation;
+			}
+		}
+	}
+
+	synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * 删除小于指定代的日志
+	 *
+	 * @param generation 日志代
+	 * @throws IOException IOException
+	 */
+	void deleteBefore(long generation) throws IOException {
+		for (Map.Entry<Long, Path> entry : listFiles(dir).entrySet()) {
+			if (entry.getKey() < generation) {
+				Files.deleteIfExists(entry.getValue());
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (syncLock) {
+			sync();
+			channel.close();
+		}
+	}
+
+	private FileChannel open(long generation) throws IOException {
+		return FileChannel.open(dir.resolve(FILE_PREFIX + generation + FILE_SUFFIX),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * 日志目录下最大的日志代，不存在时返回0
+	 *
+	 * @param dir 日志目录
+	 * @return 日志代
+	 * @throws IOException IOException
+	 */
+	static long maxGeneration(Path dir) throws IOException {
+		TreeMap<Long, Path> files = listFiles(dir);
+		return files.isEmpty() ? 0L : files.lastKey();
+	}
+
+	/**
+	 * 按顺序重放不小于指定代的日志，跳过已回滚(ABORT)事务的记录；日志末尾不完整或校验失败的记录视为未持久化而丢弃
+	 *
+	 * @param dir            日志目录
+	 * @param fromGeneration 起始日志代
+	 * @param handler        记录处理
+	 * @return 重放的记录数
+	 * @throws IOException IOException
+	 */
+	static int replay(Path dir, long fromGeneration, RecordHandler handler) throws IOException {
+		Map<Long, Path> files = listFiles(dir).tailMap(fromGeneration);
+		Set<Long> aborted = new HashSet<>();
+		for (Map.Entry<Long, Path> file : files.entrySet()) {
+			read(file.getKey(), file.getValue(), (generation, type, txId, data) -> {
+				if (type == ABORT) {
+					aborted.add(txId);
+				}
+			});
+		}
+		int[] count = {0};
+		for (Map.Entry<Long, Path> file : files.entrySet()) {
+			read(file.getKey(), file.getValue(), (generation, type, txId, data) -> {
+				if (type != ABORT && !aborted.contains(txId)) {
+					handler.handle(generation, type, txId, data);
+					count[0]++;
+				}
+			});
+		}
+		return count[0];
+	}
+
+	private static void read(long generation, Path file, RecordHandler handler) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			while (true) {
+				int length;
+				try {
+					length = in.readInt();
+				} catch (EOFException e) {
+					return;
+				}
+				try {
+					long checksum = in.readLong();
+					if (length < Byte.BYTES + Long.BYTES) {
+						log.warn("operation log {} has a corrupted record, the rest is skipped", file);
+						return;
+					}
+					byte[] body = new byte[length];
+					in.readFully(body);
+					CRC32 crc = new CRC32();
+					crc.update(body);
+					if (crc.getValue() != checksum) {
+						log.warn("operation log {} has a corrupted record, the rest is skipped", file);
+						return;
+					}
+					ByteBuffer bytes = ByteBuffer.wrap(body);
+					byte type = bytes.get();
+					long txId = bytes.getLong();
+					handler.handle(generation, type, txId, new ByteArrayInputStream(body, bytes.position(), bytes.remaining()));
+				} catch (EOFException e) {
+					log.warn("operation log {} ends with an incomplete record, the rest is skipped", file);
+					return;
+				}
+			}
+		}
+	}
+
+	private static TreeMap<Long, Path> listFiles(Path dir) throws IOException {
+		TreeMap<Long, Path> files = new TreeMap<>();
+		if (!Files.isDirectory(dir)) {
+			return files;
+		}
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+			for (Path path : stream) {
+				String name = path.getFileName().toString();
+				try {
+					files.put(Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length())), path);
+				} catch (NumberFormatException ignored) {
+				}
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * 编码map列表
+	 *
+	 * @param maps maps
+	 * @return bytes
+	 */
+	static byte[] encode(List<Map<String, String>> maps) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(maps.size());
+			for (Map<String, String> map : maps) {
+				out.writeInt(map.size());
+				for (Map.Entry<String, String> entry : map.entrySet()) {
+					writeString(out, entry.getKey());
+					writeString(out, entry.getValue());
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * 解码map列表
+	 *
+	 * @param data data
+	 * @return maps
+	 * @throws IOException IOException
+	 */
+	static List<Map<String, String>> decode(InputStream data) throws IOException {
+		DataInputStream in = new DataInputStream(data);
+		int count = in.readInt();
+		List<Map<String, String>> maps = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int size = in.readInt();
+			Map<String, String> map = new HashMap<>(size * 2);
+			for (int j = 0; j < size; j++) {
+				map.put(readString(in), readString(in));
+			}
+			maps.add(map);
+		}
+		return maps;
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@FunctionalInterface
+	interface RecordHandler {
+
+		/**
+		 * 处理一条记录
+		 *
+		 * @param generation 记录所在的日志代
+		 * @param type       操作类型
+		 * @param txId       事务id
+		 * @param data       数据
+		 * @throws IOException IOException
+		 */
+		void handle(long generation, byte type, long txId, InputStream data) throws IOException;
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.yida.lucene.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.Sort;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 时间点(point in time)会话<br/>
+ * 固定一个IndexReader，在有效期内多次分页查询看到的是同一份数据，每次使用后有效期顺延；
+ * 同时缓存每个查询的总数与上一页最后一个文档，顺序翻页时通过searchAfter只检索一页
+ *
+ * @author yida
+ * @date 2024/10/13 16:05
+ * @see Source#openPointInTime(long)
+ */
+public class PointInTime implements Closeable {
+
+	@Getter
+	private final String id;
+
+	private final SearcherLease lease;
+	private final long keepAliveMillis;
+	private volatile long expireAt;
+
+	/**
+	 * [query, sort] => 翻页游标
+	 */
+	private final Map<List<Object>, Cursor> cursors = new ConcurrentHashMap<>();
+
+	PointInTime(String id, SearcherLease lease, long keepAliveMillis) {
+		this.id = id;
+		this.lease = lease;
+		this.keepAliveMillis = keepAliveMillis;
+		touch();
+	}
+
+	public IndexSearcher getSearcher() {
+		return lease.getSearcher();
+	}
+
+	void touch() {
+		expireAt = System.currentTimeMillis() + keepAliveMillis;
+	}
+
+	boolean isExpired(long now) {
+		return now > expireAt;
+	}
+
+	public Cursor getCursor(Query query, Sort sort) {
+		return cursors.get(Arrays.asList(query, sort));
+	}
+
+	public void putCursor(Query query, Sort sort, Cursor cursor) {
+		cursors.put(Arrays.asList(query, sort), cursor);
+	}
+
+	@Override
+	public void close() throws IOException {
+		cursors.clear();
+		lease.close();
+	}
+
+	/**
+	 * 翻页游标
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class Cursor {
+
+		/**
+		 * 总数
+		 */
+		private final long total;
+
+		/**
+		 * 上一次查询的页码
+		 */
+		private final int current;
+
+		/**
+		 * 上一次查询的最后一个文档，开启排序时为FieldDoc
+		 */
+		private final ScoreDoc last;
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.bean.Pair;
+import com.yida.lucene.repository.query.Querys;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 执行一组预热查询和排序的预热器
+ * <pre>
+ * QueryWarmer.builder()
+ *     .query(Querys.eq(FieldType.BOOL, "deleted", false))
+ *     .sort(new Sort(new SortField("time", SortField.Type.LONG, true)))
+ *     .build();
+ * </pre>
+ *
+ * @author yida
+ * @date 2024/10/9 14:20
+ */
+public class QueryWarmer implements SearcherWarmer {
+
+	private static final int DEFAULT_TOP_K = 10;
+
+	private final List<Pair<Query, Sort>> queries = new ArrayList<>();
+	private int topK = DEFAULT_TOP_K;
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public void warm(IndexSearcher searcher) throws IOException {
+		for (Pair<Query, Sort> pair : queries) {
+			if (Objects.nonNull(pair.getValue())) {
+				searcher.search(pair.getKey(), topK, pair.getValue());
+			} else {
+				searcher.search(pair.getKey(), topK);
+			}
+		}
+	}
+
+	public static class Builder {
+
+		private final QueryWarmer target = new QueryWarmer();
+
+		public Builder topK(int topK) {
+			target.topK = topK;
+			return this;
+		}
+
+		public Builder query(Query query) {
+			target.queries.add(Pair.of(query, null));
+			return this;
+		}
+
+		public Builder query(Query query, Sort sort) {
+			target.queries.add(Pair.of(query, sort));
+			return this;
+		}
+
+		/**
+		 * 全量数据上执行排序，加载排序字段的doc values
+		 */
+		public Builder sort(Sort sort) {
+			target.queries.add(Pair.of(Querys.MATCH_ALL_QUERY, sort));
+			return this;
+		}
+
+		public QueryWarmer build() {
+			return target;
+		}
+	}
+
+}
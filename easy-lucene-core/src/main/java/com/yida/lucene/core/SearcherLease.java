@@ -0,0 +1,72 @@
+package com.yida.lucene.core;
+
+import org.apache.lucene.search.IndexSearcher;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * IndexSearcher租约<br/>
+ * 持有期间对应的IndexReader不会被关闭，最后一个使用者close后IndexReader才真正释放，推荐配合try-with-resources使用
+ * <pre>
+ * try (SearcherLease lease = source.acquire()) {
+ *     lease.getSearcher().search(query, 10);
+ * }
+ * </pre>
+ * 同一线程内嵌套acquire会复用同一个IndexSearcher，保证一次查询中检索与取文档使用的是同一个reader
+ *
+ * @author yida
+ * @date 2024/10/8 10:21
+ * @see Source#acquire()
+ */
+public class SearcherLease implements Closeable {
+
+	private final IndexSearcher searcher;
+
+	/**
+	 * 线程绑定的租约所在的ThreadLocal，非线程绑定时为null
+	 */
+	private final ThreadLocal<SearcherLease> owner;
+
+	private int refCount = 1;
+	private boolean closed = false;
+
+	SearcherLease(IndexSearcher searcher, ThreadLocal<SearcherLease> owner) {
+		this.searcher = searcher;
+		this.owner = owner;
+	}
+
+	public IndexSearcher getSearcher() {
+		return searcher;
+	}
+
+	/**
+	 * 同一线程内嵌套获取
+	 */
+	void retain() {
+		refCount++;
+	}
+
+	/**
+	 * 派生一个不绑定线程的租约，可以跨线程或在当前租约关闭后继续持有同一个IndexReader
+	 *
+	 * @return SearcherLease
+	 */
+	public SearcherLease share() {
+		searcher.getIndexReader().incRef();
+		return new SearcherLease(searcher, null);
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed || --refCount > 0) {
+			return;
+		}
+		closed = true;
+		if (owner != null) {
+			owner.remove();
+		}
+		searcher.getIndexReader().decRef();
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.yida.lucene.core;
+
+import org.apache.lucene.search.IndexSearcher;
+
+import java.io.IOException;
+
+/**
+ * IndexSearcher预热<br/>
+ * 新的IndexSearcher替换旧的之前执行，提前加载doc values、norms并填充查询缓存，避免刷新后的首批查询变慢
+ *
+ * @author yida
+ * @date 2024/10/9 14:05
+ * @see QueryWarmer
+ */
+@FunctionalInterface
+public interface SearcherWarmer {
+
+	/**
+	 * 预热
+	 *
+	 * @param searcher 即将发布的IndexSearcher
+	 * @throws IOException IOException
+	 */
+	void warm(IndexSearcher searcher) throws IOException;
+
+}
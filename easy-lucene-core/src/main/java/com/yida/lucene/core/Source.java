@@ -1,5 +1,6 @@
 package com.yida.lucene.core;
 
+import com.yida.lucene.exception.ElAssert;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.repository.RepositoryInterceptor;
 import com.yida.lucene.repository.hightlight.HighlightRender;
@@ -7,21 +8,58 @@ import com.yida.lucene.transaction.ElTransactionManager;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexCommit;
+import org.apache.lucene.index.IndexNotFoundException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.SnapshotDeletionPolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.IOContext;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.Executors;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 /**
- * 核心资源上下文
+ * 核心资源上下文<br/>
+ * 一个文档类可以按id的hash分为多个分片，每个分片拥有独立的IndexWriter，查询时通过MultiReader合并所有分片
  *
  * @author yida
  * @date 2024/8/4 9:24
@@ -48,12 +86,86 @@ public class Source<T> {
 	@Getter
 	private final ElTransactionManager txManager;
 
-	@Getter
-	private volatile IndexWriter writer;
+	/**
+	 * 分片，只有一个分片时直接使用indexPath，兼容未分片的索引
+	 */
+	private List<Shard> shards;
+
+	/**
+	 * 分片、操作日志等是否已打开，延迟打开时在第一次访问时打开
+	 */
+	private volatile boolean opened = false;
+	private boolean closed = false;
+	private final Object openMonitor = new Object();
+
+	/**
+	 * 只读模式(follower或只读附加)，不打开IndexWriter，写操作抛出异常
+	 */
+	private final boolean readOnly;
+
+	/**
+	 * 索引复制的发布或拉取线程，未开启复制时为null
+	 */
+	private ScheduledExecutorService replicationScheduler;
+	private long[] publishedGenerations;
+
+	private final ThreadLocal<SearcherLease> leaseHolder = new ThreadLocal<>();
+
+	/**
+	 * 多分片时缓存的合并IndexSearcher，各分片reader都未刷新时复用，缓存本身持有MultiReader的一个引用
+	 */
+	private IndexSearcher multiSearcher;
+	private IndexReader[] multiSearcherReaders;
+	private final Object multiSearcherMonitor = new Object();
+
+	/**
+	 * 时间点会话，过期的会话由后台线程定时清理
+	 */
+	private final Map<String, PointInTime> pointInTimes = new ConcurrentHashMap<>();
+	private ScheduledExecutorService pointInTimeReaper;
+
+	/**
+	 * 查询返回但尚未加载的懒加载文档，到期后由documentReaper归还租约
+	 */
+	private final Set<ElDocument<T>> pendingDocuments = ConcurrentHashMap.newKeySet();
+	private ScheduledExecutorService documentReaper;
+
+	/**
+	 * 写操作及事务提交持有读锁，flush、rollback、close持有写锁，保证操作日志的切换与IndexWriter.commit一致
+	 */
+	private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
+
+	/**
+	 * 操作日志，未开启时为null，此时每次事务提交都执行IndexWriter.commit
+	 */
+	private OperationLog operationLog;
+	private Path operationLogPath;
+	private final Object operationLogMonitor = new Object();
+	private ScheduledExecutorService flushScheduler;
 
-	private volatile SearchHolder searchHolder;
-	private final Lock updateLock = new ReentrantLock();
-	private static final ScheduledExecutorService CLOSE_THREAD = Executors.newSingleThreadScheduledExecutor();
+	/**
+	 * 存在无法写入操作日志的删除，下次事务提交时需要执行IndexWriter.commit
+	 */
+	private volatile boolean flushRequested = false;
+
+	/**
+	 * 操作已部分写入IndexWriter、尚未全部写入(prepare)或回滚的事务<br/>
+	 * IndexWriter.commit等待这些事务结束，且commit期间不允许新的事务开始写入，避免其他事务的提交将部分写入持久化
+	 */
+	private final Set<Long> applyingTxIds = new HashSet<>();
+	private int committing = 0;
+	private final Object applyingMonitor = new Object();
+
+	/**
+	 * 被其他事务的回滚一并丢弃了操作的事务，提交时抛出异常
+	 */
+	private final Set<Long> discardedTxIds = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * 正在收集事务的提交组
+	 */
+	private GroupCommit currentGroup;
+	private final Object groupCommitMonitor = new Object();
 
 	Source(Class<T> docClass,
 		   Path indexPath,
@@ -68,101 +180,1378 @@ public class Source<T> {
 		this.analyzer = analyzer;
 
 		this.factory = factory;
-		IndexWriter writer = factory.createWriter(indexPath, analyzer);
-		this.writer = writer;
-		this.searchHolder = new SearchHolder(writer);
-
 		this.docFactory = docFactory;
 		this.repositoryInterceptor = repositoryInterceptor;
 		this.txManager = txManager;
+		this.readOnly = null != factory.getConfig().getReplicationFollowPath() || factory.getConfig().isReadOnlyAttach();
+
+		if (!factory.getConfig().isLazySourceOpen()) {
+			ensureOpen();
+		}
+	}
+
+	/**
+	 * 打开分片的IndexWriter、SearcherManager，开启操作日志时重放日志
+	 */
+	private void ensureOpen() {
+		if (opened) {
+			return;
+		}
+		synchronized (openMonitor) {
+			if (opened) {
+				return;
+			}
+			if (closed) {
+				throw EmbeddedLuceneException.of("source " + docClass.getName() + " has been closed");
+			}
+			long start = System.currentTimeMillis();
+			EmbeddedLuceneConfig config = factory.getConfig();
+			String docName = indexPath.getFileName().toString();
+			int shardNum = config.getClassShardsMap().getOrDefault(docClass, 1);
+			checkShardLayout(shardNum);
+			this.shards = new ArrayList<>(shardNum);
+			// 只读附加时没有leader，直接读取本地目录
+			Path leaderPath = null == config.getReplicationFollowPath() ? null : config.getReplicationFollowPath().toPath().resolve(docName);
+			for (int i = 0; i < shardNum; i++) {
+				shards.add(shardNum == 1
+						? new Shard(indexPath, leaderPath, docName)
+						: new Shard(indexPath.resolve(SHARD_DIR_PREFIX + i), null == leaderPath ? null : leaderPath.resolve(SHARD_DIR_PREFIX + i), docName + "-" + i));
+			}
+
+			// 非持久化的目录重启后没有可以重放的基础，不记录操作日志
+			if (!readOnly && config.isOperationLogEnabled() && factory.getDirectoryProvider(docClass).persistent()) {
+				this.operationLogPath = indexPath.resolveSibling(docName + OPERATION_LOG_DIR_SUFFIX);
+				this.operationLog = recover();
+				this.flushScheduler = factory.createScheduler("Flush", docName);
+				long interval = config.getFlushIntervalMillis();
+				flushScheduler.scheduleWithFixedDelay(this::scheduledFlush, interval, interval, TimeUnit.MILLISECONDS);
+			}
+
+			long replicationInterval = config.getReplicationIntervalMillis();
+			if (config.isReadOnlyAttach()) {
+				long refreshInterval = config.getReadOnlyRefreshIntervalMillis();
+				replicationScheduler = factory.createScheduler("Refresh", docName);
+				replicationScheduler.scheduleWithFixedDelay(this::scheduledRefresh, refreshInterval, refreshInterval, TimeUnit.MILLISECONDS);
+			} else if (readOnly) {
+				replicationScheduler = factory.createScheduler("Follow", docName);
+				replicationScheduler.scheduleWithFixedDelay(this::scheduledPull, replicationInterval, replicationInterval, TimeUnit.MILLISECONDS);
+			} else if (null != config.getReplicationPublishPath()) {
+				Path publishPath = config.getReplicationPublishPath().toPath().resolve(docName);
+				replicationScheduler = factory.createScheduler("Publish", docName);
+				replicationScheduler.scheduleWithFixedDelay(() -> scheduledPublish(publishPath), 0, replicationInterval, TimeUnit.MILLISECONDS);
+			}
+			opened = true;
+			log.info("source {} opened with {} shard(s) in {} ms", docName, shardNum, System.currentTimeMillis() - start);
+		}
 	}
 
+	private static final String OPERATION_LOG_DIR_SUFFIX = ".oplog";
+	private static final String SHARD_DIR_PREFIX = "shard-";
+	private static final String SEGMENTS_PREFIX = "segments";
+
+	/**
+	 * 分片数决定了文档的路由，已有数据时不能修改
+	 *
+	 * @param shardNum 分片数
+	 */
+	private void checkShardLayout(int shardNum) {
+		File[] files = indexPath.toFile().listFiles();
+		if (null == files) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			boolean unexpected = shardNum == 1
+					? file.isDirectory() && name.startsWith(SHARD_DIR_PREFIX)
+					: name.startsWith(SEGMENTS_PREFIX) || (isShardDir(name) && Integer.parseInt(name.substring(SHARD_DIR_PREFIX.length())) >= shardNum);
+			if (unexpected) {
+				throw EmbeddedLuceneException.of("shards of " + docClass.getName() + " can not be changed to " + shardNum + " when index exists in " + indexPath);
+			}
+		}
+	}
+
+	/**
+	 * 是否为分片目录名，忽略名称以shard-开头的其他文件
+	 */
+	private static boolean isShardDir(String name) {
+		return name.startsWith(SHARD_DIR_PREFIX) && name.substring(SHARD_DIR_PREFIX.length()).matches("\\d+");
+	}
+
+	/**
+	 * 重放上次提交之后的操作日志，并提交到索引，之后从新一代日志开始记录
+	 *
+	 * @return OperationLog
+	 */
+	private OperationLog recover() {
+		try {
+			int replayed = replayOperationLog(shards);
+			if (replayed > 0) {
+				log.info("replayed {} operations from {}", replayed, operationLogPath);
+			}
+			long generation = OperationLog.maxGeneration(operationLogPath);
+			for (Shard shard : shards) {
+				generation = Math.max(generation, shard.committedGeneration());
+			}
+			generation++;
+			OperationLog operationLog = new OperationLog(operationLogPath, generation);
+			for (Shard shard : shards) {
+				shard.commit(generation, true);
+			}
+			operationLog.deleteBefore(generation);
+			return operationLog;
+		} catch (IOException e) {
+			throw EmbeddedLuceneException.of(e);
+		}
+	}
+
+	private static Iterable<Map.Entry<String, String>> commitData(long generation) {
+		return Collections.singletonMap(OperationLog.COMMIT_GENERATION_KEY, String.valueOf(generation)).entrySet();
+	}
+
+	/**
+	 * 将各分片上次提交之后的操作日志重放到指定分片
+	 *
+	 * @param targets 需要重放的分片
+	 * @return 重放的记录数
+	 * @throws IOException IOException
+	 */
+	private int replayOperationLog(List<Shard> targets) throws IOException {
+		long fromGeneration = Long.MAX_VALUE;
+		for (Shard target : targets) {
+			fromGeneration = Math.min(fromGeneration, target.committedGeneration());
+		}
+		return OperationLog.replay(operationLogPath, fromGeneration, (generation, type, txId, data) -> {
+			for (Map<String, String> map : OperationLog.decode(data)) {
+				T entity = docFactory.toJavaBean(map);
+				Shard shard = route(entity);
+				if (!targets.contains(shard) || generation < shard.committedGeneration()) {
+					continue;
+				}
+				switch (type) {
+					case OperationLog.ADD:
+						shard.writer.addDocument(docFactory.reuseDoc(entity));
+						break;
+					case OperationLog.UPDATE:
+						shard.writer.updateDocument(idTerm(entity), docFactory.reuseDoc(entity));
+						break;
+					case OperationLog.REPLACE:
+						shard.writer.deleteDocuments(docFactory.getIdQuery(entity));
+						shard.writer.addDocument(docFactory.reuseDoc(entity));
+						break;
+					default:
+						log.warn("unknown operation type {} in {}", type, operationLogPath);
+				}
+			}
+		});
+	}
+
+	/**
+	 * 事务的操作已全部写入IndexWriter，之后其他事务的提交可以将其持久化
+	 *
+	 * @param txId 事务id
+	 */
+	public void prepare(long txId) {
+		endApply(txId);
+	}
+
+	/**
+	 * 提交事务
+	 *
+	 * @param txId 事务id
+	 */
+	public void commit(long txId) {
+		if (!opened || readOnly) {
+			// 未打开或只读时不存在写入
+			return;
+		}
+		endApply(txId);
+		commit();
+		for (Shard shard : shards) {
+			shard.appliedTxMap.remove(txId);
+		}
+		if (discardedTxIds.remove(txId)) {
+			throw EmbeddedLuceneException.of("transaction " + txId + " has been discarded by the rollback of another transaction");
+		}
+	}
+
+	/**
+	 * 提交<br/>
+	 * 开启组提交时，窗口内到达的事务由第一个到达者(leader)统一执行一次commit，其余事务等待该次commit完成后返回
+	 */
 	public void commit() {
-		updateLock.lock();
+		if (!opened || readOnly) {
+			return;
+		}
+		EmbeddedLuceneConfig config = factory.getConfig();
+		long windowMillis = config.getGroupCommitWindowMillis();
+		if (windowMillis <= 0) {
+			commitNow();
+			return;
+		}
+		int maxBatch = config.getGroupCommitMaxBatch();
+		GroupCommit group;
+		boolean leader;
+		synchronized (groupCommitMonitor) {
+			group = currentGroup;
+			leader = null == group;
+			if (leader) {
+				group = new GroupCommit();
+				currentGroup = group;
+			}
+			group.size++;
+			if (group.size >= maxBatch) {
+				groupCommitMonitor.notifyAll();
+			}
+			if (leader) {
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+				try {
+					long remaining;
+					while (group.size < maxBatch && (remaining = deadline - System.nanoTime()) > 0) {
+						TimeUnit.NANOSECONDS.timedWait(groupCommitMonitor, remaining);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					// 之后到达的事务进入下一组
+					currentGroup = null;
+				}
+			}
+		}
+		if (leader) {
+			try {
+				commitNow();
+				group.future.complete(null);
+			} catch (RuntimeException e) {
+				group.future.completeExceptionally(e);
+				throw e;
+			}
+		} else {
+			try {
+				group.future.join();
+			} catch (CompletionException e) {
+				throw EmbeddedLuceneException.of(e.getCause());
+			}
+		}
+	}
+
+	private void commitNow() {
+		if (null != operationLog) {
+			syncOperationLog();
+			return;
+		}
+		beginCommit();
+		updateLock.readLock().lock();
 		try {
-			if (writer.hasUncommittedChanges()) {
-				writer.flush();
-				writer.commit();
-				searchHolder.destroy();
+			for (Shard shard : shards) {
+				shard.commit(-1, false);
 			}
 		} catch (IOException e) {
 			throw EmbeddedLuceneException.of(e);
 		} finally {
-			updateLock.unlock();
+			updateLock.readLock().unlock();
+			endCommit();
+		}
+		waitForRefresh();
+	}
+
+	/**
+	 * 等待正在写入的事务全部prepare或回滚，之后到达的事务等待本次commit完成后再写入
+	 */
+	private void beginCommit() {
+		synchronized (applyingMonitor) {
+			try {
+				while (!applyingTxIds.isEmpty()) {
+					applyingMonitor.wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw EmbeddedLuceneException.of(e);
+			}
+			committing++;
+		}
+	}
+
+	private void endCommit() {
+		synchronized (applyingMonitor) {
+			committing--;
+			applyingMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * 事务第一次写入前登记，正在执行IndexWriter.commit时等待其完成
+	 *
+	 * @param txId 事务id
+	 */
+	private void beginApply(long txId) {
+		synchronized (applyingMonitor) {
+			if (applyingTxIds.contains(txId)) {
+				return;
+			}
+			try {
+				while (committing > 0) {
+					applyingMonitor.wait();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw EmbeddedLuceneException.of(e);
+			}
+			applyingTxIds.add(txId);
+		}
+	}
+
+	private void endApply(long txId) {
+		synchronized (applyingMonitor) {
+			if (applyingTxIds.remove(txId)) {
+				applyingMonitor.notifyAll();
+			}
 		}
 	}
 
-	public void rollback() {
-		updateLock.lock();
+	/**
+	 * 持久化操作日志，日志超过阈值或存在未记录日志的删除时执行IndexWriter.commit
+	 */
+	private void syncOperationLog() {
 		try {
-			if (writer.hasUncommittedChanges()) {
-				writer.rollback();
-				IndexWriter oldWriter = writer;
-				SearchHolder oldSearcher = searchHolder;
+			operationLog.sync();
+		} catch (IOException e) {
+			throw EmbeddedLuceneException.of(e);
+		}
+		if (flushRequested || operationLog.size() >= factory.getConfig().getFlushThresholdBytes()) {
+			flush();
+		}
+		waitForRefresh();
+	}
 
-				writer = factory.createWriter(indexPath, analyzer);
-				searchHolder = new SearchHolder(writer);
+	/**
+	 * 唤醒各分片的后台线程立即刷新，保证提交后当前线程能读到自己的写入
+	 */
+	private void waitForRefresh() {
+		try {
+			for (Shard shard : shards) {
+				shard.reopenThread.waitForGeneration(shard.writer.getMaxCompletedSequenceNumber());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw EmbeddedLuceneException.of(e);
+		}
+	}
 
-				oldWriter.close();
-				oldSearcher.destroy();
+	/**
+	 * 执行IndexWriter.commit，开启操作日志时切换到新一代日志并删除已提交的日志
+	 */
+	public void flush() {
+		if (!opened || readOnly) {
+			return;
+		}
+		beginCommit();
+		updateLock.writeLock().lock();
+		try {
+			flushRequested = false;
+			boolean changed = false;
+			for (Shard shard : shards) {
+				changed |= shard.writer.hasUncommittedChanges();
+			}
+			if (changed) {
+				if (null == operationLog) {
+					for (Shard shard : shards) {
+						shard.commit(-1, false);
+					}
+				} else {
+					// 所有分片记录相同的日志代
+					long generation = operationLog.roll();
+					for (Shard shard : shards) {
+						shard.commit(generation, true);
+					}
+					operationLog.deleteBefore(generation);
+				}
 			}
 		} catch (IOException e) {
 			throw EmbeddedLuceneException.of(e);
 		} finally {
-			updateLock.unlock();
+			updateLock.writeLock().unlock();
+			endCommit();
 		}
 	}
 
-	public T getJavaBean(int doc, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
-		if (null == selectFieldSet || selectFieldSet.isEmpty()) {
-			return docFactory.toJavaBean(searchHolder.getIndexSearcher().doc(doc), highlightRender);
-		} else {
-			return docFactory.toJavaBean(searchHolder.getIndexSearcher().doc(doc, selectFieldSet), highlightRender);
+	private void scheduledFlush() {
+		try {
+			flush();
+		} catch (Exception e) {
+			log.warn("scheduled flush failed", e);
+		}
+	}
+
+	/**
+	 * 回滚事务<br/>
+	 * 事务的操作在提交时才写入IndexWriter，未写入时只需丢弃缓冲，不影响其他事务；
+	 * 仅当事务的操作已部分写入时才回滚涉及到的分片，开启操作日志时重放其他事务的操作，
+	 * 无法恢复操作的其他事务在提交时抛出异常；部分写入期间其他事务的提交会等待回滚完成，不会将其持久化
+	 *
+	 * @param txId 事务id
+	 */
+	public void rollback(long txId) {
+		if (!opened || readOnly) {
+			return;
+		}
+		List<Shard> touched = new ArrayList<>(shards.size());
+		for (Shard shard : shards) {
+			if (null != shard.appliedTxMap.remove(txId)) {
+				touched.add(shard);
+			}
+		}
+		if (touched.isEmpty()) {
+			discardedTxIds.remove(txId);
+			endApply(txId);
+			return;
+		}
+		updateLock.writeLock().lock();
+		try {
+			if (null != operationLog) {
+				operationLog.append(OperationLog.ABORT, txId, EMPTY_BYTES);
+				operationLog.sync();
+			}
+			List<Shard> rolledBack = new ArrayList<>(touched.size());
+			for (Shard shard : touched) {
+				if (shard.writer.hasUncommittedChanges()) {
+					shard.rollback();
+					rolledBack.add(shard);
+				}
+			}
+			if (null != operationLog && !rolledBack.isEmpty()) {
+				replayOperationLog(rolledBack);
+			}
+		} catch (IOException e) {
+			throw EmbeddedLuceneException.of(e);
+		} finally {
+			updateLock.writeLock().unlock();
+			endApply(txId);
+		}
+	}
+
+	private static final byte[] EMPTY_BYTES = new byte[0];
+
+	private void checkWritable() {
+		if (readOnly) {
+			throw EmbeddedLuceneException.of("source " + docClass.getName() + " is read-only");
+		}
+	}
+
+	/**
+	 * leader定时将最新的提交发布到发布目录，提交没有变化时跳过；开启操作日志时发布的是最近一次flush的提交
+	 *
+	 * @param publishPath 发布目录
+	 */
+	private void scheduledPublish(Path publishPath) {
+		try {
+			long[] generations = new long[shards.size()];
+			for (int i = 0; i < generations.length; i++) {
+				generations[i] = SegmentInfos.getLastCommitGeneration(shards.get(i).directory);
+			}
+			if (Arrays.equals(generations, publishedGenerations)) {
+				return;
+			}
+			backupLastCommit(publishPath);
+			publishedGenerations = generations;
+		} catch (Exception e) {
+			log.warn("publish {} to {} failed", docClass.getName(), publishPath, e);
+		}
+	}
+
+	/**
+	 * 只读附加时定时通过openIfChanged打开写入进程的新提交
+	 */
+	private void scheduledRefresh() {
+		for (Shard shard : shards) {
+			try {
+				shard.searcherManager.maybeRefresh();
+			} catch (Exception e) {
+				log.warn("refresh {} failed", shard.name, e);
+			}
+		}
+	}
+
+	/**
+	 * follower定时从leader拉取新的提交并重新打开IndexReader
+	 */
+	private void scheduledPull() {
+		for (Shard shard : shards) {
+			try {
+				if (shard.pull()) {
+					shard.searcherManager.maybeRefresh();
+					shard.deleteUnreferencedFiles();
+				}
+			} catch (NoSuchFileException | FileNotFoundException e) {
+				// 复制期间leader发布了新的提交并删除了旧文件，下次重试
+				log.debug("leader of {} published a new commit while pulling, retry later", shard.name);
+			} catch (Exception e) {
+				log.warn("pull {} from leader failed", shard.name, e);
+			}
 		}
 	}
 
-	public ElDocument<T> getElDocument(int doc, HighlightRender highlightRender, Set<String> selectFieldSet) {
-		return docFactory.getElDocument(doc, this, highlightRender, selectFieldSet);
+	private final Object backupLock = new Object();
+
+	/**
+	 * 在线增量备份最近一次提交到目标目录，备份期间不阻塞写入和事务提交<br/>
+	 * 通过SnapshotDeletionPolicy固定提交点，只复制目标目录中不存在或大小不同的文件(Lucene的索引文件写入后不再修改)，
+	 * 持久化目录优先使用硬链接，最后删除目标目录中不属于该提交的文件；开启操作日志时先执行一次flush，备份包含所有已提交的事务
+	 *
+	 * @param target 目标目录，多个分片时每个分片对应一个子目录
+	 * @return 复制的文件数
+	 */
+	public int backup(Path target) {
+		ensureOpen();
+		checkWritable();
+		if (null != operationLog) {
+			flush();
+		}
+		return backupLastCommit(target);
 	}
 
-	public SearchHolder getSearchHolder() {
-		return searchHolder;
+	private int backupLastCommit(Path target) {
+		boolean persistent = factory.getDirectoryProvider(docClass).persistent();
+		int copied = 0;
+		synchronized (backupLock) {
+			// 持有读锁防止回滚重新打开IndexWriter而丢失快照
+			updateLock.readLock().lock();
+			try {
+				for (Shard shard : shards) {
+					copied += shard.backup(target.resolve(indexPath.relativize(shard.path)), persistent);
+				}
+			} catch (IOException e) {
+				throw EmbeddedLuceneException.of(e);
+			} finally {
+				updateLock.readLock().unlock();
+			}
+		}
+		return copied;
 	}
 
 	/**
-	 * IndexSearcher创建过程有一些计算量，实际上大部分的IndexSearcher不会真的被使用，所以这里懒加载一下
+	 * 添加文档
+	 *
+	 * @param txId     事务id
+	 * @param entities entities
+	 * @return 添加的文档数
+	 * @throws IOException IOException
 	 */
-	public class SearchHolder {
-		private final IndexWriter writer;
-		private IndexSearcher indexSearcher;
+	public int addDocuments(long txId, Collection<T> entities) throws IOException {
+		ensureOpen();
+		checkWritable();
+		beginApply(txId);
+		Map<Shard, List<T>> shardEntities = groupByShard(entities);
+		byte[] logData = encodeOperationLog(entities);
+		updateLock.readLock().lock();
+		try {
+			applyLogged(() -> {
+				for (Map.Entry<Shard, List<T>> entry : shardEntities.entrySet()) {
+					Shard shard = entry.getKey();
+					shard.applied(txId, -1L, true);
+					long seqNo = shard.writer.addDocuments(reuseDocs(entry.getValue()));
+					shard.applied(txId, seqNo, null != operationLog);
+				}
+				appendOperationLog(OperationLog.ADD, txId, logData);
+			});
+		} finally {
+			updateLock.readLock().unlock();
+		}
+		return entities.size();
+	}
 
-		public SearchHolder(IndexWriter writer) {
+	/**
+	 * 根据id词项更新文档
+	 *
+	 * @param txId   事务id
+	 * @param entity entity
+	 * @return 更新的文档数
+	 * @throws IOException IOException
+	 */
+	public int updateDocument(long txId, T entity) throws IOException {
+		ensureOpen();
+		checkWritable();
+		beginApply(txId);
+		Term idTerm = idTerm(entity);
+		Shard shard = route(entity);
+		byte[] logData = encodeOperationLog(Collections.singletonList(entity));
+		updateLock.readLock().lock();
+		try {
+			applyLogged(() -> {
+				shard.applied(txId, -1L, true);
+				long seqNo = shard.writer.updateDocument(idTerm, docFactory.reuseDoc(entity));
+				appendOperationLog(OperationLog.UPDATE, txId, logData);
+				shard.applied(txId, seqNo, null != operationLog);
+			});
+		} finally {
+			updateLock.readLock().unlock();
+		}
+		return 1;
+	}
+
+	/**
+	 * 根据id删除后重新添加文档
+	 *
+	 * @param txId     事务id
+	 * @param entities entities
+	 * @return 添加的文档数
+	 * @throws IOException IOException
+	 */
+	public int replaceDocuments(long txId, Collection<T> entities) throws IOException {
+		ensureOpen();
+		checkWritable();
+		beginApply(txId);
+		Map<Shard, List<T>> shardEntities = groupByShard(entities);
+		byte[] logData = encodeOperationLog(entities);
+		updateLock.readLock().lock();
+		try {
+			applyLogged(() -> {
+				for (Map.Entry<Shard, List<T>> entry : shardEntities.entrySet()) {
+					Shard shard = entry.getKey();
+					shard.applied(txId, -1L, true);
+					shard.writer.deleteDocuments(idQueries(entry.getValue()));
+					long seqNo = shard.writer.addDocuments(reuseDocs(entry.getValue()));
+					shard.applied(txId, seqNo, null != operationLog);
+				}
+				appendOperationLog(OperationLog.REPLACE, txId, logData);
+			});
+		} finally {
+			updateLock.readLock().unlock();
+		}
+		return entities.size();
+	}
+
+	/**
+	 * 根据id删除文档，只在id路由到的分片上删除，无法路由的id在所有分片上删除
+	 *
+	 * @param txId 事务id
+	 * @param ids  ids
+	 * @return 删除的id对应的query
+	 * @throws IOException IOException
+	 */
+	public Query[] deleteByIds(long txId, Collection<? extends Serializable> ids) throws IOException {
+		ensureOpen();
+		checkWritable();
+		beginApply(txId);
+		Map<Shard, List<Query>> shardQueries = new HashMap<>();
+		List<Query> unrouted = new ArrayList<>();
+		Query[] idQueries = new Query[ids.size()];
+		int i = 0;
+		for (Serializable id : ids) {
+			Query query = idQueries[i++] = docFactory.getIdQuery(id);
+			Shard shard = route(id);
+			if (null == shard) {
+				unrouted.add(query);
+			} else {
+				shardQueries.computeIfAbsent(shard, k -> new ArrayList<>()).add(query);
+			}
+		}
+		updateLock.readLock().lock();
+		try {
+			for (Shard shard : shards) {
+				List<Query> queries = new ArrayList<>(shardQueries.getOrDefault(shard, Collections.emptyList()));
+				queries.addAll(unrouted);
+				if (queries.isEmpty()) {
+					continue;
+				}
+				shard.applied(txId, -1L, true);
+				long seqNo = shard.writer.deleteDocuments(queries.toArray(new Query[0]));
+				shard.applied(txId, seqNo, false);
+			}
+			if (null != operationLog) {
+				flushRequested = true;
+			}
+		} finally {
+			updateLock.readLock().unlock();
+		}
+		return idQueries;
+	}
+
+	/**
+	 * 根据query删除所有分片中的文档，query无法写入操作日志，开启操作日志时事务提交会执行IndexWriter.commit
+	 *
+	 * @param txId    事务id
+	 * @param queries queries
+	 * @throws IOException IOException
+	 */
+	public void deleteDocuments(long txId, Query... queries) throws IOException {
+		ensureOpen();
+		checkWritable();
+		beginApply(txId);
+		updateLock.readLock().lock();
+		try {
+			for (Shard shard : shards) {
+				shard.applied(txId, -1L, true);
+				long seqNo = shard.writer.deleteDocuments(queries);
+				shard.applied(txId, seqNo, false);
+			}
+			if (null != operationLog) {
+				flushRequested = true;
+			}
+		} finally {
+			updateLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 开启操作日志时，写入IndexWriter与追加日志在同一把锁内完成，
+	 * 保证并发事务对同一id的操作在日志中的顺序与写入索引的顺序一致，重放后得到相同的最终版本
+	 *
+	 * @param write 写入IndexWriter并追加日志
+	 * @throws IOException IOException
+	 */
+	private void applyLogged(LoggedWrite write) throws IOException {
+		if (null == operationLog) {
+			write.apply();
+			return;
+		}
+		synchronized (operationLogMonitor) {
+			write.apply();
+		}
+	}
+
+	@FunctionalInterface
+	private interface LoggedWrite {
+		void apply() throws IOException;
+	}
+
+	/**
+	 * 在锁外编码操作日志，未开启操作日志时返回null
+	 */
+	private byte[] encodeOperationLog(Collection<T> entities) {
+		if (null == operationLog) {
+			return null;
+		}
+		List<Map<String, String>> maps = entities.stream().map(docFactory::toStringMap).collect(Collectors.toList());
+		return OperationLog.encode(maps);
+	}
+
+	private void appendOperationLog(byte type, long txId, byte[] data) {
+		if (null != operationLog) {
+			operationLog.append(type, txId, data);
+		}
+	}
+
+	/**
+	 * 按id的hash路由到分片，id为空时按文档内容的hash路由，保证操作日志重放时路由一致
+	 *
+	 * @param entity entity
+	 * @return Shard
+	 */
+	private Shard route(T entity) {
+		if (shards.size() == 1) {
+			return shards.get(0);
+		}
+		Serializable id = docFactory.getId(entity);
+		int hash = Objects.nonNull(id) ? id.hashCode() : docFactory.toStringMap(entity).hashCode();
+		return shards.get(Math.floorMod(hash, shards.size()));
+	}
+
+	/**
+	 * 按id路由到分片，与{@link #route(Object)}使用相同的hash，id的类型与实体id字段不一致时hash不可靠，返回null
+	 *
+	 * @param id id
+	 * @return Shard
+	 */
+	private Shard route(Serializable id) {
+		if (shards.size() == 1) {
+			return shards.get(0);
+		}
+		if (Objects.isNull(id) || !docFactory.isIdType(id)) {
+			return null;
+		}
+		return shards.get(Math.floorMod(id.hashCode(), shards.size()));
+	}
+
+	private Map<Shard, List<T>> groupByShard(Collection<T> entities) {
+		if (shards.size() == 1) {
+			return Collections.singletonMap(shards.get(0), new ArrayList<>(entities));
+		}
+		return entities.stream().collect(Collectors.groupingBy(this::route));
+	}
+
+	/**
+	 * IndexWriter逐个消费文档，迭代时复用当前线程的文档模板，批量写入不再持有整批Document
+	 *
+	 * @param entities entities
+	 * @return Iterable
+	 */
+	private Iterable<Document> reuseDocs(List<T> entities) {
+		return () -> entities.stream().map(docFactory::reuseDoc).iterator();
+	}
+
+	private Query[] idQueries(Collection<T> entities) {
+		return entities.stream().map(docFactory::getIdQuery).toArray(Query[]::new);
+	}
+
+	private Term idTerm(T entity) {
+		Serializable id = docFactory.getId(entity);
+		if (Objects.isNull(id)) {
+			throw EmbeddedLuceneException.of("docId can not been null when update");
+		}
+		return new Term(docFactory.getIdFieldName(), id.toString());
+	}
+
+	/**
+	 * 关闭后台刷新线程、SearcherManager及IndexWriter，开启操作日志时关闭前提交索引
+	 */
+	public void close() {
+		synchronized (this) {
+			if (null != pointInTimeReaper) {
+				pointInTimeReaper.shutdown();
+			}
+			if (null != documentReaper) {
+				documentReaper.shutdown();
+			}
+		}
+		pointInTimes.keySet().forEach(this::closePointInTime);
+		closePendingDocuments(Long.MAX_VALUE);
+		synchronized (openMonitor) {
+			closed = true;
+		}
+		if (!opened) {
+			return;
+		}
+		if (null != replicationScheduler) {
+			replicationScheduler.shutdown();
+		}
+		if (null != flushScheduler) {
+			flushScheduler.shutdown();
+			flush();
+		}
+		updateLock.writeLock().lock();
+		try {
+			synchronized (multiSearcherMonitor) {
+				releaseMultiSearcher();
+			}
+			for (Shard shard : shards) {
+				shard.close();
+			}
+			if (null != operationLog) {
+				operationLog.close();
+			}
+		} catch (IOException e) {
+			throw EmbeddedLuceneException.of(e);
+		} finally {
+			updateLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 共享同一次IndexWriter.commit的一组事务
+	 */
+	private static class GroupCommit {
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private int size = 0;
+	}
+
+	/**
+	 * 分片，拥有独立的IndexWriter、近实时的SearcherManager和后台刷新线程
+	 */
+	private class Shard {
+
+		private final Directory directory;
+		private final Path path;
+		private final String name;
+
+		/**
+		 * follower对应的leader发布目录，非follower时为null
+		 */
+		private final Path leaderPath;
+
+		/**
+		 * follower最近一次从leader复制的提交
+		 */
+		private String pulledSegmentsFileName;
+
+		private volatile IndexWriter writer;
+		private volatile SearcherManager searcherManager;
+		private volatile ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
+		/**
+		 * 当前IndexWriter最后一次commit的seqNo
+		 */
+		private volatile long committedSeqNo = 0L;
+
+		/**
+		 * 已将操作写入该分片但尚未提交或回滚的事务 => 其中无法通过操作日志恢复的操作的最大seqNo，没有时为-1
+		 */
+		private final Map<Long, Long> appliedTxMap = new ConcurrentHashMap<>();
+
+		private Shard(Path path, Path leaderPath, String name) {
+			// 回滚重新打开IndexWriter时复用同一个Directory，内存目录的数据不会丢失
+			this.directory = factory.createDirectory(docClass, path);
+			this.path = path;
+			this.leaderPath = leaderPath;
+			this.name = name;
+			if (readOnly) {
+				openReadOnly();
+			} else {
+				open();
+			}
+		}
+
+		/**
+		 * 只读打开，不创建IndexWriter；follower先从leader复制最新的提交，leader尚未发布时以空索引打开，
+		 * 只读附加时直接通过DirectoryReader打开目录中最新的提交
+		 */
+		private void openReadOnly() {
+			try {
+				if (null != leaderPath) {
+					try {
+						pull();
+					} catch (NoSuchFileException | FileNotFoundException e) {
+						log.debug("leader of {} published a new commit while pulling, retry later", name);
+					}
+				}
+				if (!DirectoryReader.indexExists(directory)) {
+					if (null == leaderPath) {
+						// 只读附加时索引由其他进程写入，不能在其目录中创建提交
+						throw EmbeddedLuceneException.of("index of " + name + " does not exist in " + path + ", it can not be attached read-only");
+					}
+					try (IndexWriter emptyWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer).setCommitOnClose(false))) {
+						emptyWriter.commit();
+					}
+				}
+			} catch (IOException e) {
+				throw EmbeddedLuceneException.of(e);
+			}
+			this.searcherManager = factory.createSearcherManager(directory, factory.getConfig().getClassWarmerMap().get(docClass));
+		}
+
+		/**
+		 * 从leader的发布目录复制最新提交中本地缺少的文件，segments_N最后复制
+		 *
+		 * @return 是否复制了新的提交
+		 * @throws IOException IOException
+		 */
+		private boolean pull() throws IOException {
+			try (FSDirectory leader = FSDirectory.open(leaderPath)) {
+				SegmentInfos infos;
+				try {
+					infos = SegmentInfos.readLatestCommit(leader);
+				} catch (IndexNotFoundException e) {
+					return false;
+				}
+				String segmentsFileName = infos.getSegmentsFileName();
+				if (segmentsFileName.equals(pulledSegmentsFileName)) {
+					return false;
+				}
+				Set<String> localFiles = new HashSet<>(Arrays.asList(directory.listAll()));
+				for (String fileName : infos.files(false)) {
+					// 段文件写入后不再修改，同名同大小即为同一文件
+					if (!localFiles.contains(fileName) || directory.fileLength(fileName) != leader.fileLength(fileName)) {
+						pullFile(leader, fileName, localFiles);
+					}
+				}
+				// 本地的segments_N可能是同名的空提交，总是复制
+				pullFile(leader, segmentsFileName, localFiles);
+				directory.sync(infos.files(true));
+				directory.syncMetaData();
+				pulledSegmentsFileName = segmentsFileName;
+				return true;
+			}
+		}
+
+		private void pullFile(Directory leader, String fileName, Set<String> localFiles) throws IOException {
+			if (localFiles.contains(fileName)) {
+				directory.deleteFile(fileName);
+			}
+			directory.copyFrom(leader, fileName, fileName, IOContext.READONCE);
+		}
+
+		/**
+		 * 删除最新提交不再引用的文件，仍被旧reader打开而删除失败的文件下次重试
+		 *
+		 * @throws IOException IOException
+		 */
+		private void deleteUnreferencedFiles() throws IOException {
+			Set<String> referenced = new HashSet<>(SegmentInfos.readLatestCommit(directory).files(true));
+			for (String fileName : directory.listAll()) {
+				if (!referenced.contains(fileName)) {
+					try {
+						directory.deleteFile(fileName);
+					} catch (IOException e) {
+						log.debug("delete unreferenced file {} of {} failed", fileName, name, e);
+					}
+				}
+			}
+		}
+
+		private void open() {
+			IndexWriter writer = factory.createWriter(directory, analyzer, factory.getIndexWriterOptions(docClass), docFactory.getIndexSort());
+			SearcherManager searcherManager = factory.createSearcherManager(writer, factory.getConfig().getClassWarmerMap().get(docClass));
 			this.writer = writer;
+			this.searcherManager = searcherManager;
+			this.reopenThread = factory.createReopenThread(name, writer, searcherManager);
+			// 新IndexWriter的seqNo重新计数
+			this.committedSeqNo = 0L;
 		}
 
-		public synchronized IndexSearcher getIndexSearcher() {
-			if (indexSearcher != null) {
-				return indexSearcher;
+		/**
+		 * 当前IndexWriter打开的提交所对应的日志代
+		 *
+		 * @return 日志代
+		 */
+		private long committedGeneration() {
+			Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+			if (null != commitData) {
+				for (Map.Entry<String, String> entry : commitData) {
+					if (OperationLog.COMMIT_GENERATION_KEY.equals(entry.getKey())) {
+						return Long.parseLong(entry.getValue());
+					}
+				}
 			}
-			indexSearcher = factory.createSearcher(writer);
-			return indexSearcher;
+			return 0L;
+		}
+
+		/**
+		 * 记录事务已写入的操作
+		 *
+		 * @param txId        事务id
+		 * @param seqNo       操作的seqNo
+		 * @param recoverable 操作能否通过操作日志恢复
+		 */
+		private void applied(long txId, long seqNo, boolean recoverable) {
+			appliedTxMap.merge(txId, recoverable ? -1L : seqNo, Math::max);
 		}
 
-		public synchronized void destroy() throws IOException {
-			if (indexSearcher == null) {
+		/**
+		 * 提交
+		 *
+		 * @param generation 日志代，未开启操作日志时为-1
+		 * @param force      没有未提交的修改时是否仍然提交
+		 * @throws IOException IOException
+		 */
+		private void commit(long generation, boolean force) throws IOException {
+			if (!force && !writer.hasUncommittedChanges()) {
 				return;
 			}
-			IndexReader indexReader = indexSearcher.getIndexReader();
-			indexSearcher = null;
-			// 这个indexSearcher可能在其他地方还被拿着使用，所以我们延迟10s关闭它
-			CLOSE_THREAD.schedule(() -> {
+			if (generation > 0) {
+				writer.setLiveCommitData(commitData(generation));
+			}
+			committedSeqNo = writer.commit();
+		}
+
+		/**
+		 * 回滚到上次提交，操作无法恢复的事务记为已丢弃
+		 *
+		 * @throws IOException IOException
+		 */
+		private void rollback() throws IOException {
+			ControlledRealTimeReopenThread<IndexSearcher> oldReopenThread = reopenThread;
+			SearcherManager oldSearcherManager = searcherManager;
+			long oldCommittedSeqNo = committedSeqNo;
+
+			oldReopenThread.close();
+			writer.rollback();
+			open();
+
+			appliedTxMap.forEach((txId, seqNo) -> {
+				if (seqNo > oldCommittedSeqNo) {
+					discardedTxIds.add(txId);
+					appliedTxMap.remove(txId);
+				} else {
+					appliedTxMap.put(txId, -1L);
+				}
+			});
+
+			// 仍被租用的旧reader在最后一个租约归还时关闭
+			oldSearcherManager.close();
+		}
+
+		/**
+		 * 备份最近一次提交，尚未提交过时不备份
+		 *
+		 * @param target     目标目录
+		 * @param persistent 索引文件是否位于path下
+		 * @return 复制的文件数
+		 * @throws IOException IOException
+		 */
+		private int backup(Path target, boolean persistent) throws IOException {
+			if (!DirectoryReader.indexExists(directory)) {
+				return 0;
+			}
+			SnapshotDeletionPolicy snapshotPolicy = (SnapshotDeletionPolicy) writer.getConfig().getIndexDeletionPolicy();
+			IndexCommit commit = snapshotPolicy.snapshot();
+			try (FSDirectory targetDirectory = FSDirectory.open(Files.createDirectories(target))) {
+				Set<String> fileNames = new HashSet<>(commit.getFileNames());
+				int copied = 0;
+				// segments_N最后复制，保证中途失败时目标目录中的上一个提交仍然完整
+				for (String fileName : fileNames) {
+					if (!fileName.equals(commit.getSegmentsFileName()) && copy(fileName, target, targetDirectory, persistent)) {
+						copied++;
+					}
+				}
+				if (copy(commit.getSegmentsFileName(), target, targetDirectory, persistent)) {
+					copied++;
+				}
+				targetDirectory.sync(fileNames);
+				targetDirectory.syncMetaData();
+				try (DirectoryStream<Path> stream = Files.newDirectoryStream(target)) {
+					for (Path file : stream) {
+						if (Files.isRegularFile(file) && !fileNames.contains(file.getFileName().toString())) {
+							Files.delete(file);
+						}
+					}
+				}
+				return copied;
+			} finally {
+				snapshotPolicy.release(commit);
+				writer.deleteUnusedFiles();
+			}
+		}
+
+		private boolean copy(String fileName, Path target, FSDirectory targetDirectory, boolean persistent) throws IOException {
+			Path dest = target.resolve(fileName);
+			if (Files.exists(dest) && Files.size(dest) == directory.fileLength(fileName)) {
+				return false;
+			}
+			Files.deleteIfExists(dest);
+			if (persistent) {
 				try {
-					indexReader.close();
-				} catch (IOException e) {
-					log.error("close indexReader failed", e);
+					Files.createLink(dest, path.resolve(fileName));
+					return true;
+				} catch (IOException | UnsupportedOperationException e) {
+					log.debug("can not create hard link for {}, fallback to copy", fileName, e);
+				}
+			}
+			targetDirectory.copyFrom(directory, fileName, fileName, IOContext.READONCE);
+			return true;
+		}
+
+		private void close() throws IOException {
+			if (null != reopenThread) {
+				reopenThread.close();
+			}
+			searcherManager.close();
+			if (null != writer) {
+				writer.close();
+			}
+			directory.close();
+		}
+	}
+
+	/**
+	 * 租用当前最新的IndexSearcher，同一线程内嵌套调用复用同一个IndexSearcher<br/>
+	 * 存在多个分片时返回基于各分片reader组成的MultiReader的IndexSearcher
+	 *
+	 * @return SearcherLease
+	 * @throws IOException IOException
+	 */
+	public SearcherLease acquire() throws IOException {
+		ensureOpen();
+		SearcherLease lease = leaseHolder.get();
+		if (lease != null) {
+			lease.retain();
+			return lease;
+		}
+		lease = new SearcherLease(shards.size() == 1 ? shards.get(0).searcherManager.acquire() : acquireMultiSearcher(), leaseHolder);
+		leaseHolder.set(lease);
+		return lease;
+	}
+
+	private IndexSearcher acquireMultiSearcher() throws IOException {
+		int shardNum = shards.size();
+		IndexSearcher[] searchers = new IndexSearcher[shardNum];
+		try {
+			IndexReader[] readers = new IndexReader[shardNum];
+			for (int i = 0; i < shardNum; i++) {
+				searchers[i] = shards.get(i).searcherManager.acquire();
+				readers[i] = searchers[i].getIndexReader();
+			}
+			synchronized (multiSearcherMonitor) {
+				if (null == multiSearcher || !Arrays.equals(multiSearcherReaders, readers)) {
+					// MultiReader持有各分片reader的引用，关闭时归还
+					IndexSearcher searcher = new IndexSearcher(new MultiReader(readers, false), factory.getExecutor());
+					releaseMultiSearcher();
+					multiSearcher = searcher;
+					multiSearcherReaders = readers;
+				}
+				multiSearcher.getIndexReader().incRef();
+				return multiSearcher;
+			}
+		} finally {
+			for (int i = 0; i < shardNum; i++) {
+				if (null != searchers[i]) {
+					shards.get(i).searcherManager.release(searchers[i]);
 				}
-			}, 10, TimeUnit.SECONDS);
+			}
+		}
+	}
+
+	private void releaseMultiSearcher() throws IOException {
+		if (null != multiSearcher) {
+			IndexSearcher searcher = multiSearcher;
+			multiSearcher = null;
+			multiSearcherReaders = null;
+			searcher.getIndexReader().decRef();
+		}
+	}
+
+	/**
+	 * 批量获取javabean，选择的字段都有DocValues时按列读取，不解压存储字段
+	 *
+	 * @param scoreDocs       命中
+	 * @param highlightRender 高亮
+	 * @param selectFieldSet  选择的字段，为空时加载全部
+	 * @return javabean，顺序与命中一致
+	 * @throws IOException IOException
+	 */
+	public List<T> getJavaBeans(ScoreDoc[] scoreDocs, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		try (SearcherLease lease = acquire()) {
+			return docFactory.toJavaBeans(lease.getSearcher(), scoreDocs, highlightRender, selectFieldSet);
+		}
+	}
+
+	/**
+	 * 打开流式游标，游标持有当前线程租约的IndexReader(时间点会话内即会话的IndexReader)直到遍历结束或关闭
+	 *
+	 * @param query           query
+	 * @param sort            排序，为null时按docId顺序
+	 * @param batchSize       每批加载的文档数
+	 * @param highlightRender 高亮
+	 * @param selectFieldSet  选择的字段，为空时加载全部
+	 * @return ElCursor
+	 * @throws IOException IOException
+	 */
+	public ElCursor<T> iterate(Query query, Sort sort, int batchSize, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		ElAssert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		try (SearcherLease lease = acquire()) {
+			return new ElCursor<>(docFactory, lease.share(), query, sort, batchSize, highlightRender, selectFieldSet);
+		}
+	}
+
+	public T getJavaBean(int doc, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		try (SearcherLease lease = acquire()) {
+			return docFactory.toJavaBean(lease.getSearcher(), doc, highlightRender, selectFieldSet);
+		}
+	}
+
+	/**
+	 * 打开时间点会话，固定当前最新的IndexReader<br/>
+	 * 打开的会话数达到{@link EmbeddedLuceneConfig#getMaxPointInTimes()}时先关闭已过期的会话，仍未释放时拒绝
+	 *
+	 * @param keepAliveMillis 有效期(毫秒)，每次使用后顺延
+	 * @return 会话id
+	 * @throws IOException IOException
+	 */
+	public String openPointInTime(long keepAliveMillis) throws IOException {
+		ElAssert.isTrue(keepAliveMillis > 0, "keepAliveMillis must be greater than 0");
+		int maxPointInTimes = factory.getConfig().getMaxPointInTimes();
+		String id = UUID.randomUUID().toString();
+		synchronized (pointInTimes) {
+			if (pointInTimes.size() >= maxPointInTimes) {
+				closeExpiredPointInTimes();
+				if (pointInTimes.size() >= maxPointInTimes) {
+					throw EmbeddedLuceneException.of("too many open point in times of " + docClass.getName() + ", max is " + maxPointInTimes);
+				}
+			}
+			try (SearcherLease lease = acquire()) {
+				pointInTimes.put(id, new PointInTime(id, lease.share(), keepAliveMillis));
+			}
+		}
+		startPointInTimeReaper(keepAliveMillis);
+		return id;
+	}
+
+	private synchronized void startPointInTimeReaper(long keepAliveMillis) {
+		if (null == pointInTimeReaper) {
+			pointInTimeReaper = factory.createScheduler("Pit", indexPath.getFileName().toString());
+			long interval = Math.max(1000L, Math.min(keepAliveMillis, 60_000L));
+			pointInTimeReaper.scheduleWithFixedDelay(this::closeExpiredPointInTimes, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void closeExpiredPointInTimes() {
+		long now = System.currentTimeMillis();
+		for (PointInTime pointInTime : pointInTimes.values()) {
+			if (pointInTime.isExpired(now)) {
+				closePointInTime(pointInTime.getId());
+			}
+		}
+	}
+
+	/**
+	 * 获取时间点会话并顺延有效期
+	 *
+	 * @param id 会话id
+	 * @return PointInTime
+	 */
+	public PointInTime getPointInTime(String id) {
+		PointInTime pointInTime = pointInTimes.get(id);
+		if (null == pointInTime || pointInTime.isExpired(System.currentTimeMillis())) {
+			throw EmbeddedLuceneException.of("point in time [" + id + "] does not exist or has expired");
+		}
+		pointInTime.touch();
+		return pointInTime;
+	}
+
+	/**
+	 * 关闭时间点会话，释放固定的IndexReader
+	 *
+	 * @param id 会话id
+	 */
+	public void closePointInTime(String id) {
+		PointInTime pointInTime = pointInTimes.remove(id);
+		if (null != pointInTime) {
+			try {
+				pointInTime.close();
+			} catch (IOException e) {
+				log.warn("close point in time [{}] failed", id, e);
+			}
+		}
+	}
+
+	/**
+	 * 租用时间点会话固定的IndexSearcher，同一线程内嵌套的{@link #acquire()}复用该IndexSearcher
+	 *
+	 * @param pointInTimeId 会话id
+	 * @return SearcherLease
+	 */
+	public SearcherLease acquire(String pointInTimeId) {
+		IndexSearcher searcher = getPointInTime(pointInTimeId).getSearcher();
+		SearcherLease lease = leaseHolder.get();
+		if (lease != null) {
+			if (lease.getSearcher() != searcher) {
+				throw EmbeddedLuceneException.of("point in time [" + pointInTimeId + "] can not be acquired inside another searcher lease");
+			}
+			lease.retain();
+			return lease;
+		}
+		// 会话可能同时被关闭
+		if (!searcher.getIndexReader().tryIncRef()) {
+			throw EmbeddedLuceneException.of("point in time [" + pointInTimeId + "] does not exist or has expired");
+		}
+		lease = new SearcherLease(searcher, leaseHolder);
+		leaseHolder.set(lease);
+		return lease;
+	}
+
+	public ElDocument<T> getElDocument(int doc, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
+		long keepAliveMillis = factory.getConfig().getLazyDocumentKeepAliveMillis();
+		startDocumentReaper(keepAliveMillis);
+		try (SearcherLease lease = acquire()) {
+			return new ElDocument<>(doc, lease.share(), docFactory, highlightRender, selectFieldSet,
+					System.currentTimeMillis() + keepAliveMillis, pendingDocuments);
+		}
+	}
+
+	private synchronized void startDocumentReaper(long keepAliveMillis) {
+		if (null == documentReaper) {
+			documentReaper = factory.createScheduler("Doc", indexPath.getFileName().toString());
+			long interval = Math.max(100L, Math.min(keepAliveMillis / 2, 5_000L));
+			documentReaper.scheduleWithFixedDelay(() -> closePendingDocuments(System.currentTimeMillis()), interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private void closePendingDocuments(long now) {
+		for (ElDocument<T> document : pendingDocuments) {
+			try {
+				document.closeIfExpired(now);
+			} catch (IOException | RuntimeException e) {
+				log.warn("release lease of lazy document failed", e);
+			}
 		}
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,241 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.bean.LatLon;
+import com.yida.lucene.constant.IndexFieldTemplate;
+import com.yida.lucene.exception.EmbeddedLuceneException;
+import com.yida.lucene.util.ByteUtil;
+import org.apache.lucene.store.ByteArrayDataInput;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefBuilder;
+import org.apache.lucene.util.UnicodeUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 紧凑_source的编解码<br/>
+ * 格式：版本号，之后每个非空字段依次为 字段名、类型标记、值，字符串为vint长度加UTF-8，数值使用{@link ByteUtil}的小端编码<br/>
+ * 带字段名和类型标记，实体增删字段后旧文档仍可解码
+ *
+ * @author yida
+ * @date 2024/10/15 16:52
+ * @see com.yida.lucene.annotation.CompactSource
+ */
+final class SourceCodec {
+
+	static final String FIELD_NAME = "_source";
+
+	private static final byte VERSION = 1;
+	private static final byte STRING = 0;
+	private static final byte LONG = 1;
+	private static final byte BOOL = 2;
+	private static final byte LATLON = 3;
+	private static final byte DOUBLE = 4;
+
+	/**
+	 * 解码回调
+	 */
+	interface Sink {
+
+		/**
+		 * 是否需要该字段，不需要时直接跳过，不创建字符串
+		 *
+		 * @param accessor 字段
+		 * @return boolean
+		 */
+		boolean accept(FieldAccessor accessor);
+
+		/**
+		 * TEXT、STRING、BOOL、LATLON字段，值为可由FieldType.get(String, Class)还原的字符串
+		 *
+		 * @param accessor 字段
+		 * @param value    value
+		 */
+		void stringValue(FieldAccessor accessor, String value);
+
+		/**
+		 * DATE、LONG、INT字段
+		 *
+		 * @param accessor 字段
+		 * @param value    value
+		 */
+		void longValue(FieldAccessor accessor, long value);
+
+		/**
+		 * DOUBLE、FLOAT字段
+		 *
+		 * @param accessor 字段
+		 * @param value    value
+		 */
+		void doubleValue(FieldAccessor accessor, double value);
+
+	}
+
+	private final FieldAccessor[] accessors;
+	private final byte[][] names;
+	private final Map<String, FieldAccessor> nameAccessorMap = new HashMap<>();
+
+	SourceCodec(FieldAccessor[] accessors) {
+		this.accessors = accessors;
+		this.names = new byte[accessors.length][];
+		for (int i = 0; i < accessors.length; i++) {
+			names[i] = accessors[i].name.getBytes(StandardCharsets.UTF_8);
+			nameAccessorMap.put(accessors[i].name, accessors[i]);
+		}
+	}
+
+	/**
+	 * 编码javabean
+	 *
+	 * @param bean   javabean
+	 * @param buffer 缓冲区，返回的BytesRef引用其内容
+	 * @return BytesRef
+	 */
+	BytesRef encode(Object bean, BytesRefBuilder buffer) {
+		buffer.clear();
+		buffer.append(VERSION);
+		for (int i = 0; i < accessors.length; i++) {
+			FieldAccessor accessor = accessors[i];
+			Object value = accessor.get(bean);
+			if (null == value) {
+				continue;
+			}
+			writeVInt(buffer, names[i].length);
+			buffer.append(names[i], 0, names[i].length);
+			switch (accessor.type) {
+				case DATE:
+					buffer.append(LONG);
+					writeLong(buffer, IndexFieldTemplate.toEpochMilli(value));
+					break;
+				case LONG:
+				case INT:
+					buffer.append(LONG);
+					writeLong(buffer, ((Number) value).longValue());
+					break;
+				case DOUBLE:
+				case FLOAT:
+					buffer.append(DOUBLE);
+					writeLong(buffer, Double.doubleToLongBits(((Number) value).doubleValue()));
+					break;
+				case BOOL:
+					buffer.append(BOOL);
+					buffer.append((byte) (Boolean.TRUE.equals(value) ? 1 : 0));
+					break;
+				case LATLON:
+					buffer.append(LATLON);
+					writeLong(buffer, Double.doubleToLongBits(((LatLon) value).getLatitude()));
+					writeLong(buffer, Double.doubleToLongBits(((LatLon) value).getLongitude()));
+					break;
+				default:
+					buffer.append(STRING);
+					writeString(buffer, value.toString());
+			}
+		}
+		return buffer.get();
+	}
+
+	/**
+	 * 一次遍历解码，未知字段按类型标记跳过
+	 *
+	 * @param bytes bytes
+	 * @param sink  回调
+	 */
+	void decode(BytesRef bytes, Sink sink) {
+		ByteArrayDataInput in = new ByteArrayDataInput(bytes.bytes, bytes.offset, bytes.length);
+		// 版本号，目前只有一个版本
+		in.readByte();
+		int expect = 0;
+		while (!in.eof()) {
+			int nameLength = in.readVInt();
+			int namePos = in.getPosition();
+			in.skipBytes(nameLength);
+			FieldAccessor accessor = null;
+			// 按编码顺序优先匹配下一个字段，避免创建字段名字符串
+			for (int i = expect; i < accessors.length; i++) {
+				if (nameEquals(names[i], bytes.bytes, namePos, nameLength)) {
+					accessor = accessors[i];
+					expect = i + 1;
+					break;
+				}
+			}
+			if (null == accessor) {
+				accessor = nameAccessorMap.get(new String(bytes.bytes, namePos, nameLength, StandardCharsets.UTF_8));
+			}
+			boolean accept = null != accessor && sink.accept(accessor);
+			byte tag = in.readByte();
+			switch (tag) {
+				case STRING:
+					int length = in.readVInt();
+					if (accept) {
+						sink.stringValue(accessor, new String(bytes.bytes, in.getPosition(), length, StandardCharsets.UTF_8));
+					}
+					in.skipBytes(length);
+					break;
+				case LONG:
+					if (accept) {
+						sink.longValue(accessor, ByteUtil.bytesToLong(bytes.bytes, in.getPosition(), ByteUtil.DEFAULT_ORDER));
+					}
+					in.skipBytes(Long.BYTES);
+					break;
+				case DOUBLE:
+					if (accept) {
+						sink.doubleValue(accessor, Double.longBitsToDouble(ByteUtil.bytesToLong(bytes.bytes, in.getPosition(), ByteUtil.DEFAULT_ORDER)));
+					}
+					in.skipBytes(Long.BYTES);
+					break;
+				case BOOL:
+					boolean bool = in.readByte() == 1;
+					if (accept) {
+						sink.stringValue(accessor, Boolean.toString(bool));
+					}
+					break;
+				case LATLON:
+					if (accept) {
+						double latitude = Double.longBitsToDouble(ByteUtil.bytesToLong(bytes.bytes, in.getPosition(), ByteUtil.DEFAULT_ORDER));
+						double longitude = Double.longBitsToDouble(ByteUtil.bytesToLong(bytes.bytes, in.getPosition() + Long.BYTES, ByteUtil.DEFAULT_ORDER));
+						sink.stringValue(accessor, latitude + "," + longitude);
+					}
+					in.skipBytes(Long.BYTES * 2);
+					break;
+				default:
+					throw EmbeddedLuceneException.of("corrupted " + FIELD_NAME + ", unknown tag " + tag);
+			}
+		}
+	}
+
+	private static boolean nameEquals(byte[] name, byte[] bytes, int offset, int length) {
+		if (name.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (name[i] != bytes[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void writeLong(BytesRefBuilder buffer, long value) {
+		byte[] bytes = ByteUtil.longToBytes(value, ByteUtil.DEFAULT_ORDER);
+		buffer.append(bytes, 0, bytes.length);
+	}
+
+	private static void writeVInt(BytesRefBuilder buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.append((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.append((byte) value);
+	}
+
+	private static void writeString(BytesRefBuilder buffer, String value) {
+		int length = UnicodeUtil.calcUTF16toUTF8Length(value, 0, value.length());
+		writeVInt(buffer, length);
+		int offset = buffer.length();
+		buffer.grow(offset + length);
+		UnicodeUtil.UTF16toUTF8(value, 0, value.length(), buffer.bytes(), offset);
+		buffer.setLength(offset + length);
+	}
+
+}
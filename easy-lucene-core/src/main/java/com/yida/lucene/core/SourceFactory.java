@@ -5,21 +5,26 @@ import com.yida.lucene.transaction.ElTransactionManager;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.KeepOnlyLastCommitDeletionPolicy;
+import org.apache.lucene.index.SnapshotDeletionPolicy;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.store.FSDirectory;
-import org.apache.lucene.store.LockFactory;
-import org.apache.lucene.store.MMapDirectory;
-import org.apache.lucene.store.NIOFSDirectory;
-import org.apache.lucene.store.NoLockFactory;
-import org.apache.lucene.store.SimpleFSDirectory;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.store.Directory;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * @author yida
@@ -80,58 +85,130 @@ public abstract class SourceFactory {
 	 */
 	public abstract ExecutorService getExecutor();
 
+	/**
+	 * 获取配置
+	 *
+	 * @return EmbeddedLuceneConfig
+	 */
+	public abstract EmbeddedLuceneConfig getConfig();
+
+	/**
+	 * 创建近实时的SearcherManager，新的IndexSearcher通过openIfChanged增量打开，只加载变化的段
+	 *
+	 * @param writer  writer
+	 * @param warmers 新的IndexSearcher发布前执行的预热器
+	 * @return SearcherManager
+	 */
 	@SneakyThrows
-	public final IndexSearcher createSearcher(IndexWriter writer) {
-		return new IndexSearcher(DirectoryReader.open(writer), getExecutor());
+	public final SearcherManager createSearcherManager(IndexWriter writer, List<SearcherWarmer> warmers) {
+		return new SearcherManager(writer, true, false, createSearcherFactory(warmers));
 	}
 
+	/**
+	 * 创建只读的SearcherManager，maybeRefresh时通过openIfChanged打开目录中最新的提交
+	 *
+	 * @param directory 索引目录，必须已存在提交
+	 * @param warmers   新的IndexSearcher发布前执行的预热器
+	 * @return SearcherManager
+	 */
 	@SneakyThrows
-	public final IndexWriter createWriter(Path indexPath, Analyzer analyzer) {
-		return new IndexWriter(
-				getFsDirectory(indexPath),
-				new IndexWriterConfig(analyzer)
-						.setCommitOnClose(false)
-						.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
-						.setInfoStream(LoggerInfoStreamAdapter.INSTANCE)
-		);
+	public final SearcherManager createSearcherManager(Directory directory, List<SearcherWarmer> warmers) {
+		return new SearcherManager(directory, createSearcherFactory(warmers));
+	}
+
+	private SearcherFactory createSearcherFactory(List<SearcherWarmer> warmers) {
+		return new SearcherFactory() {
+			@Override
+			public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+				IndexSearcher searcher = new IndexSearcher(reader, getExecutor());
+				if (Objects.nonNull(warmers)) {
+					for (SearcherWarmer warmer : warmers) {
+						try {
+							warmer.warm(searcher);
+						} catch (Exception e) {
+							// 预热失败不影响新IndexSearcher的发布
+							log.warn("warm IndexSearcher failed", e);
+						}
+					}
+				}
+				return searcher;
+			}
+		};
+	}
+
+	/**
+	 * 创建后台刷新线程，最多间隔maxStaleMillis刷新一次，有线程等待指定generation时立即刷新
+	 *
+	 * @param docName         文档名称
+	 * @param writer          writer
+	 * @param searcherManager searcherManager
+	 * @return ControlledRealTimeReopenThread
+	 */
+	public final ControlledRealTimeReopenThread<IndexSearcher> createReopenThread(String docName, IndexWriter writer, SearcherManager searcherManager) {
+		double maxStaleSec = getConfig().getMaxStaleMillis() / 1000.0;
+		ControlledRealTimeReopenThread<IndexSearcher> reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleSec, 0);
+		reopenThread.setName("Embedded-Lucene-Reopen-" + docName);
+		reopenThread.setDaemon(true);
+		reopenThread.start();
+		return reopenThread;
 	}
 
 	/**
-	 * 1、SimpleFSDirectory
-	 * 最简单的FSDirectory子类，使用java.io.*API将文件存入文件系统中，不能很好支持多线程操作。
-	 * 因为要做到这点就必须在内部加入锁，而java.io.*并不支持按位置读取。
-	 * <p>
-	 * 2、NIOFSDirectory
-	 * 使用java.io.*API所提供的位置读取接口，能很好的支持除Windows之外的多线程操作，原因是Sun的JRE在Windows平台上长期存在问题。
-	 * NIOFSDirectory在Windows操作系统的性能比较差，甚至可能比SimpleFSDirecory的性能还差。
-	 * <p>
-	 * 3、MmapDirectory
-	 * 使用内存映射的I/O接口进行读操作，这样不需要采取锁机制，并能很好的支持多线程读操作。
-	 * 但由于内存映射的I/O所消耗的地址空间是与索引尺寸相等，所以建议最好只是用64位JRE。
+	 * 创建后台定时任务线程，如操作日志的定时提交、过期时间点会话的清理
 	 *
-	 * @param indexPath
-	 * @return FSDirectory
+	 * @param purpose 用途
+	 * @param docName 文档名称
+	 * @return ScheduledExecutorService
 	 */
+	public final ScheduledExecutorService createScheduler(String purpose, String docName) {
+		return Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Embedded-Lucene-" + purpose + "-" + docName);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * 获取文档类的索引目录提供者，未配置时根据运行环境自动选择
+	 *
+	 * @param docClass 文档类型
+	 * @return DirectoryProvider
+	 */
+	public final DirectoryProvider getDirectoryProvider(Class<?> docClass) {
+		DirectoryProvider provider = getConfig().getClassDirectoryMap().get(docClass);
+		return Objects.isNull(provider) ? DirectoryProvider.auto() : provider;
+	}
+
 	@SneakyThrows
-	@SuppressWarnings("all")
-	private static FSDirectory getFsDirectory(Path indexPath) {
-		LockFactory lockFactory = NoLockFactory.INSTANCE;
-		FSDirectory fsDirectory;
-		String vmName = System.getProperty("java.vm.name").toLowerCase();
-		if (vmName.contains(BIT_64)) {
-			fsDirectory = MMapDirectory.open(indexPath, lockFactory);
-		} else {
-			String systemName = System.getProperty("os.name").toLowerCase();
-			if (systemName.contains(WIN)) {
-				fsDirectory = SimpleFSDirectory.open(indexPath, lockFactory);
-			} else {
-				fsDirectory = NIOFSDirectory.open(indexPath, lockFactory);
-			}
-		}
-		return fsDirectory;
+	public final Directory createDirectory(Class<?> docClass, Path indexPath) {
+		return getDirectoryProvider(docClass).open(indexPath);
 	}
 
-	private static final String WIN = "win";
-	private static final String BIT_64 = "64";
+	/**
+	 * 获取文档类的IndexWriter调优参数，文档类的配置覆盖全局配置
+	 *
+	 * @param docClass 文档类型
+	 * @return IndexWriterOptions
+	 */
+	public final IndexWriterOptions getIndexWriterOptions(Class<?> docClass) {
+		EmbeddedLuceneConfig config = getConfig();
+		IndexWriterOptions options = config.getIndexWriterOptions();
+		IndexWriterOptions classOptions = config.getClassIndexWriterOptionsMap().get(docClass);
+		return Objects.isNull(classOptions) ? options : options.merge(classOptions);
+	}
+
+	@SneakyThrows
+	public final IndexWriter createWriter(Directory directory, Analyzer analyzer, IndexWriterOptions options, Sort indexSort) {
+		IndexWriterConfig writerConfig = options.apply(new IndexWriterConfig(analyzer)
+				.setCommitOnClose(false)
+				.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+				// 备份时固定提交点，避免备份期间文件被删除
+				.setIndexDeletionPolicy(new SnapshotDeletionPolicy(new KeepOnlyLastCommitDeletionPolicy()))
+				.setInfoStream(LoggerInfoStreamAdapter.INSTANCE));
+		if (Objects.nonNull(indexSort)) {
+			writerConfig.setIndexSort(indexSort);
+		}
+		return new IndexWriter(directory, writerConfig);
+	}
 
 }
@@ -1,7 +1,10 @@
 package com.yida.lucene.repository;
 
 import com.yida.lucene.core.DocFactory;
+import com.yida.lucene.core.ElCursor;
 import com.yida.lucene.core.ElDocument;
+import com.yida.lucene.core.PointInTime;
+import com.yida.lucene.core.SearcherLease;
 import com.yida.lucene.core.Source;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.repository.hightlight.HighlightRender;
@@ -22,7 +25,6 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
-import org.apache.lucene.search.TotalHitCountCollector;
 
 import java.io.IOException;
 import java.io.Serializable;
@@ -35,6 +37,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * @author yida
@@ -42,6 +45,10 @@ import java.util.concurrent.TimeUnit;
  */
 public interface ElRepository<T> {
 	TopDocs EMPTY_TOP_DOCS = new TopDocs(null, null);
+	/**
+	 * 流式查询默认每批加载的文档数
+	 */
+	int DEFAULT_BATCH_SIZE = 1000;
 	Future<Integer> DONE_FUTURE = new Future<Integer>() {
 		@Override
 		public boolean cancel(boolean mayInterruptIfRunning) {
@@ -277,12 +284,7 @@ public interface ElRepository<T> {
 		if (null == scoreDoc || scoreDoc.length == 0) {
 			return Collections.emptyList();
 		}
-		List<T> res = new ArrayList<>(scoreDoc.length);
-		Source<T> source = getSource();
-		for (ScoreDoc doc : scoreDoc) {
-			res.add(source.getJavaBean(doc.doc, highlightRender, selectFieldSet));
-		}
-		return res;
+		return getSource().getJavaBeans(scoreDoc, highlightRender, selectFieldSet);
 	}
 
 	default List<ElDocument<T>> getDocument(ScoreDoc[] scoreDoc, HighlightRender highlightRender, Set<String> selectFieldSet) throws IOException {
@@ -447,15 +449,18 @@ public interface ElRepository<T> {
 	default List<T> selectList(Query query, Sort sort, int topK, HighlightRender highlightRender, Set<String> selectFieldSet) {
 		return warpResultWithException(() -> {
 			final Source<T> source = getSource();
-			TopDocs topDocs = search(query, sort, topK);
-			if (topDocs.equals(EMPTY_TOP_DOCS)) {
-				return Collections.emptyList();
-			}
-			if (topDocs.scoreDocs.length == 0) {
-				return Collections.emptyList();
-			} else {
-				HighlightRender.init(highlightRender, query, source.getAnalyzer());
-				return getJavaBean(topDocs.scoreDocs, highlightRender, selectFieldSet);
+			// 检索与取文档在同一个租约内，保证docId对应同一个reader
+			try (SearcherLease ignored = source.acquire()) {
+				TopDocs topDocs = search(query, sort, topK);
+				if (topDocs.equals(EMPTY_TOP_DOCS)) {
+					return Collections.emptyList();
+				}
+				if (topDocs.scoreDocs.length == 0) {
+					return Collections.emptyList();
+				} else {
+					HighlightRender.init(highlightRender, query, source.getAnalyzer());
+					return getJavaBean(topDocs.scoreDocs, highlightRender, selectFieldSet);
+				}
 			}
 		});
 	}
@@ -580,15 +585,18 @@ public interface ElRepository<T> {
 	default List<ElDocument<T>> selectDocList(Query query, Sort sort, int topK, HighlightRender highlightRender, Set<String> selectFieldSet) {
 		return warpResultWithException(() -> {
 			final Source<T> source = getSource();
-			TopDocs topDocs = search(query, sort, topK);
-			if (topDocs.equals(EMPTY_TOP_DOCS)) {
-				return Collections.emptyList();
-			}
-			if (topDocs.scoreDocs.length == 0) {
-				return Collections.emptyList();
-			} else {
-				HighlightRender.init(highlightRender, query, source.getAnalyzer());
-				return getDocument(topDocs.scoreDocs, highlightRender, selectFieldSet);
+			// 检索与取文档在同一个租约内，保证docId对应同一个reader
+			try (SearcherLease ignored = source.acquire()) {
+				TopDocs topDocs = search(query, sort, topK);
+				if (topDocs.equals(EMPTY_TOP_DOCS)) {
+					return Collections.emptyList();
+				}
+				if (topDocs.scoreDocs.length == 0) {
+					return Collections.emptyList();
+				} else {
+					HighlightRender.init(highlightRender, query, source.getAnalyzer());
+					return getDocument(topDocs.scoreDocs, highlightRender, selectFieldSet);
+				}
 			}
 		});
 	}
@@ -667,31 +675,32 @@ public interface ElRepository<T> {
 			final int size = finalPageQuery.getSize();
 
 			final Source<T> source = getSource();
-			IndexSearcher searcher = source.getSearchHolder().getIndexSearcher();
-			TotalHitCountCollector collector = Querys.totalHitsCollector();
-			searcher.search(query, collector);
-
-			long total = collector.getTotalHits();
-			int totalPage = Math.toIntExact(total / size) + (total % size > 0 ? 1 : 0);
-
-			if ((long) (current - 1) * size > total) {
-				return Page.of(Collections.emptyList(), total, totalPage, size, current);
-			}
-
-			TopDocs topDocs = search(query, sort, current * size);
-			if (topDocs.equals(EMPTY_TOP_DOCS)) {
-				return Page.of(Collections.emptyList(), total, totalPage, size, current);
-			}
-
-			int fromIndex = (current - 1) * size;
-			int toIndex = fromIndex + size;
-			ScoreDoc[] scoreDocs = topDocs.scoreDocs;
-			if (null != scoreDocs && scoreDocs.length != 0) {
-				scoreDocs = Arrays.copyOfRange(scoreDocs, fromIndex, Math.min(toIndex, (int) total));
+			// 计数、检索与取文档在同一个租约内，保证看到的是同一份数据
+			try (SearcherLease lease = source.acquire()) {
+				IndexSearcher searcher = lease.getSearcher();
+				// count对MatchAllDocsQuery、TermQuery等直接使用索引统计，无需遍历命中的文档
+				long total = searcher.count(query);
+				int totalPage = Math.toIntExact(total / size) + (total % size > 0 ? 1 : 0);
+
+				if ((long) (current - 1) * size > total) {
+					return Page.of(Collections.emptyList(), total, totalPage, size, current);
+				}
+
+				TopDocs topDocs = search(query, sort, current * size);
+				if (topDocs.equals(EMPTY_TOP_DOCS)) {
+					return Page.of(Collections.emptyList(), total, totalPage, size, current);
+				}
+
+				int fromIndex = (current - 1) * size;
+				int toIndex = fromIndex + size;
+				ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+				if (null != scoreDocs && scoreDocs.length != 0) {
+					scoreDocs = Arrays.copyOfRange(scoreDocs, fromIndex, Math.min(toIndex, (int) total));
+				}
+				HighlightRender.init(highlightRender, query, source.getAnalyzer());
+				List<T> records = getJavaBean(scoreDocs, highlightRender, selectFieldSet);
+				return Page.of(records, total, totalPage, size, current);
 			}
-			HighlightRender.init(highlightRender, query, source.getAnalyzer());
-			List<T> records = getJavaBean(scoreDocs, highlightRender, selectFieldSet);
-			return Page.of(records, total, totalPage, size, current);
 		});
 	}
 
@@ -768,30 +777,31 @@ public interface ElRepository<T> {
 			final int size = finalPageQuery.getSize();
 
 			final Source<T> source = getSource();
-			IndexSearcher searcher = source.getSearchHolder().getIndexSearcher();
-			TotalHitCountCollector collector = Querys.totalHitsCollector();
-			searcher.search(query, collector);
-
-			long total = collector.getTotalHits();
-			int totalPage = Math.toIntExact(total / size) + (total % size > 0 ? 1 : 0);
-
-			if ((long) (current - 1) * size > total) {
-				return Page.of(Collections.emptyList(), total, totalPage, size, current);
-			}
-			TopDocs topDocs = search(query, sort, current * size);
-			if (topDocs.equals(EMPTY_TOP_DOCS)) {
-				return Page.of(Collections.emptyList(), total, totalPage, size, current);
-			}
-
-			int fromIndex = (current - 1) * size;
-			int toIndex = fromIndex + size;
-			ScoreDoc[] scoreDocs = topDocs.scoreDocs;
-			if (null != scoreDocs && scoreDocs.length != 0) {
-				scoreDocs = Arrays.copyOfRange(scoreDocs, fromIndex, Math.min(toIndex, (int) total));
+			// 计数、检索与取文档在同一个租约内，保证看到的是同一份数据
+			try (SearcherLease lease = source.acquire()) {
+				IndexSearcher searcher = lease.getSearcher();
+				// count对MatchAllDocsQuery、TermQuery等直接使用索引统计，无需遍历命中的文档
+				long total = searcher.count(query);
+				int totalPage = Math.toIntExact(total / size) + (total % size > 0 ? 1 : 0);
+
+				if ((long) (current - 1) * size > total) {
+					return Page.of(Collections.emptyList(), total, totalPage, size, current);
+				}
+				TopDocs topDocs = search(query, sort, current * size);
+				if (topDocs.equals(EMPTY_TOP_DOCS)) {
+					return Page.of(Collections.emptyList(), total, totalPage, size, current);
+				}
+
+				int fromIndex = (current - 1) * size;
+				int toIndex = fromIndex + size;
+				ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+				if (null != scoreDocs && scoreDocs.length != 0) {
+					scoreDocs = Arrays.copyOfRange(scoreDocs, fromIndex, Math.min(toIndex, (int) total));
+				}
+				HighlightRender.init(highlightRender, query, source.getAnalyzer());
+				List<ElDocument<T>> records = getDocument(scoreDocs, highlightRender, selectFieldSet);
+				return Page.of(records, total, totalPage, size, current);
 			}
-			HighlightRender.init(highlightRender, query, source.getAnalyzer());
-			List<ElDocument<T>> records = getDocument(scoreDocs, highlightRender, selectFieldSet);
-			return Page.of(records, total, totalPage, size, current);
 		});
 	}
 
@@ -925,6 +935,136 @@ public interface ElRepository<T> {
 		return selectDocList(wrapper.getQuery(), wrapper.getSort(), wrapper.getLimit(), wrapper.getHighlightRender(), wrapper.getSelect());
 	}
 
+	/**
+	 * 流式遍历，按docId顺序分批加载
+	 *
+	 * @param query     query
+	 * @param batchSize 每批加载的文档数
+	 * @return 游标，遍历结束后自动释放，提前结束时需要close
+	 */
+	default ElCursor<T> iterate(Query query, int batchSize) {
+		return iterate(query, null, batchSize, null, null);
+	}
+
+	/**
+	 * 流式遍历，整个遍历期间使用同一个IndexReader
+	 *
+	 * @param query           query
+	 * @param sort            排序，为null时按docId顺序且不打分
+	 * @param batchSize       每批加载的文档数
+	 * @param highlightRender 高亮
+	 * @param selectFieldSet  选择的字段
+	 * @return 游标，遍历结束后自动释放，提前结束时需要close
+	 */
+	default ElCursor<T> iterate(Query query, Sort sort, int batchSize, HighlightRender highlightRender, Set<String> selectFieldSet) {
+		return warpResultWithException(() -> {
+			Source<T> source = getSource();
+			HighlightRender.init(highlightRender, query, source.getAnalyzer());
+			return source.iterate(query, sort, batchSize, highlightRender, selectFieldSet);
+		});
+	}
+
+	/**
+	 * 条件包装器流式查询，limit大于0时只返回前limit条
+	 *
+	 * @param wrapper wrapper
+	 * @return Stream，推荐配合try-with-resources使用
+	 */
+	default Stream<T> stream(QueryWrapper<T> wrapper) {
+		wrapper.setSource(getSource());
+		int limit = wrapper.getLimit();
+		int batchSize = limit > 0 ? Math.min(limit, DEFAULT_BATCH_SIZE) : DEFAULT_BATCH_SIZE;
+		Stream<T> stream = iterate(wrapper.getQuery(), wrapper.getSort(), batchSize, wrapper.getHighlightRender(), wrapper.getSelect()).stream();
+		return limit > 0 ? stream.limit(limit) : stream;
+	}
+
+	/**
+	 * 打开时间点会话，会话内的分页查询使用同一个IndexReader
+	 *
+	 * @param keepAliveMillis 有效期(毫秒)，每次使用后顺延
+	 * @return 会话id
+	 */
+	default String openPointInTime(long keepAliveMillis) {
+		return warpResultWithException(() -> getSource().openPointInTime(keepAliveMillis));
+	}
+
+	/**
+	 * 关闭时间点会话
+	 *
+	 * @param pointInTimeId 会话id
+	 */
+	default void closePointInTime(String pointInTimeId) {
+		getSource().closePointInTime(pointInTimeId);
+	}
+
+	/**
+	 * 在时间点会话内分页查询，翻页期间的写入不影响结果；
+	 * 同一查询的总数只统计一次，顺序翻到下一页时从上一页最后一个文档之后检索
+	 *
+	 * @param pointInTimeId   会话id
+	 * @param query           query
+	 * @param pageQuery       pageQuery
+	 * @param sort            sort
+	 * @param highlightRender highlightRender
+	 * @return Page
+	 */
+	default Page<T> selectPage(String pointInTimeId, Query query, PageQuery pageQuery, Sort sort, HighlightRender highlightRender, Set<String> selectFieldSet) {
+		if (null == pageQuery) {
+			pageQuery = new PageQuery();
+		}
+		PageQuery finalPageQuery = pageQuery;
+		return warpResultWithException(() -> {
+			final int current = finalPageQuery.getCurrent();
+			final int size = finalPageQuery.getSize();
+
+			final Source<T> source = getSource();
+			try (SearcherLease lease = source.acquire(pointInTimeId)) {
+				IndexSearcher searcher = lease.getSearcher();
+				PointInTime pointInTime = source.getPointInTime(pointInTimeId);
+				PointInTime.Cursor cursor = pointInTime.getCursor(query, sort);
+				long total = null != cursor ? cursor.getTotal() : searcher.count(query);
+				int totalPage = Math.toIntExact(total / size) + (total % size > 0 ? 1 : 0);
+
+				if ((long) (current - 1) * size > total) {
+					return Page.of(Collections.emptyList(), total, totalPage, size, current);
+				}
+
+				ScoreDoc[] scoreDocs;
+				if (null != cursor && cursor.getCurrent() == current - 1) {
+					TopDocs topDocs = null == sort
+							? searcher.searchAfter(cursor.getLast(), query, size)
+							: searcher.searchAfter(cursor.getLast(), query, size, sort);
+					scoreDocs = topDocs.scoreDocs;
+				} else {
+					ScoreDoc[] topScoreDocs = search(query, sort, current * size).scoreDocs;
+					int fromIndex = (current - 1) * size;
+					scoreDocs = null == topScoreDocs || topScoreDocs.length <= fromIndex
+							? new ScoreDoc[0]
+							: Arrays.copyOfRange(topScoreDocs, fromIndex, Math.min(fromIndex + size, topScoreDocs.length));
+				}
+				if (scoreDocs.length != 0) {
+					pointInTime.putCursor(query, sort, new PointInTime.Cursor(total, current, scoreDocs[scoreDocs.length - 1]));
+				}
+				HighlightRender.init(highlightRender, query, source.getAnalyzer());
+				List<T> records = getJavaBean(scoreDocs, highlightRender, selectFieldSet);
+				return Page.of(records, total, totalPage, size, current);
+			}
+		});
+	}
+
+	/**
+	 * 在时间点会话内条件包装器查询
+	 *
+	 * @param pointInTimeId 会话id
+	 * @param wrapper       wrapper
+	 * @param pageQuery     pageQuery
+	 * @return page
+	 */
+	default Page<T> selectPage(String pointInTimeId, QueryWrapper<T> wrapper, PageQuery pageQuery) {
+		wrapper.setSource(getSource());
+		return selectPage(pointInTimeId, wrapper.getQuery(), pageQuery, wrapper.getSort(), wrapper.getHighlightRender(), wrapper.getSelect());
+	}
+
 	/**
 	 * 条件包装器查询
 	 *
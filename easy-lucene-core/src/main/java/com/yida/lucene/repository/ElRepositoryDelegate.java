@@ -7,6 +7,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
@@ -99,6 +100,19 @@ class ElRepositoryDelegate<T> implements ElRepository<T> {
 		});
 	}
 
+	@Override
+	public Future<Integer> deleteByIdsFuture(Collection<? extends Serializable> idList) {
+		return updateTransactionAdapt(() -> target.deleteByIdsFuture(idList));
+	}
+
+	@Override
+	public void deleteByIds(Collection<? extends Serializable> idList) {
+		updateTransactionAdapt(() -> {
+			target.deleteByIds(idList);
+			return null;
+		});
+	}
+
 	@Override
 	public TopDocs search(Query query, Sort sort, int limit) {
 		searchTransactionAdapt();
@@ -1,6 +1,7 @@
 package com.yida.lucene.repository;
 
 import com.yida.lucene.core.DocFactory;
+import com.yida.lucene.core.SearcherLease;
 import com.yida.lucene.core.Source;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.repository.query.Querys;
@@ -8,26 +9,25 @@ import com.yida.lucene.transaction.ElTransaction;
 import com.yida.lucene.transaction.ElTransactionManager;
 import com.yida.lucene.transaction.TransactionSupportFutureTask;
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.document.Document;
-import org.apache.lucene.index.IndexWriter;
-import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
 
 /**
  * @author yida
@@ -51,18 +51,7 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 
 	@Override
 	public Future<Integer> insertFuture(T entity) {
-		Document doc = source.getDocFactory().createDoc(entity);
-		ElTransaction elTransaction = txManager.getElTransaction();
-		TransactionSupportFutureTask futureTask = new TransactionSupportFutureTask(
-				() -> warpResultWithException(() -> {
-					IndexWriter writer = source.getWriter();
-					int before = writer.getDocStats().maxDoc;
-					writer.addDocument(doc);
-					int after = writer.getDocStats().maxDoc;
-					return Math.abs(after - before);
-				}), elTransaction);
-		elTransaction.addTask(futureTask);
-		return futureTask;
+		return insertFuture(Collections.singletonList(entity));
 	}
 
 	@Override
@@ -70,15 +59,12 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 		if (entities == null || entities.isEmpty()) {
 			return DONE_FUTURE;
 		}
-		List<Document> collect = entities.stream().map(source.getDocFactory()::createDoc).collect(Collectors.toList());
+		List<T> snapshot = snapshot(entities);
 		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
 		TransactionSupportFutureTask futureTask = new TransactionSupportFutureTask(
 				() -> warpResultWithException(() -> {
-					IndexWriter writer = source.getWriter();
-					int before = writer.getDocStats().maxDoc;
-					writer.addDocuments(collect);
-					int after = writer.getDocStats().maxDoc;
-					return Math.abs(after - before);
+					return source.addDocuments(txId, snapshot);
 				}), elTransaction);
 		elTransaction.addTask(futureTask);
 		return futureTask;
@@ -86,21 +72,13 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 
 	@Override
 	public Future<Integer> updateFuture(T entity) {
-		DocFactory<T> docFactory = source.getDocFactory();
-		Serializable id = docFactory.getId(entity);
-		if (Objects.isNull(id)) {
-			throw EmbeddedLuceneException.of("docId can not been null when update");
-		}
-		Document doc = source.getDocFactory().createDoc(entity);
-		Term idTerm = new Term(docFactory.getIdFieldName(), id.toString());
+		checkId(entity);
+		T snapshot = source.getDocFactory().copy(entity);
 		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
 		TransactionSupportFutureTask futureTask = new TransactionSupportFutureTask(
 				() -> warpResultWithException(() -> {
-					IndexWriter writer = source.getWriter();
-					int before = writer.getDocStats().maxDoc;
-					writer.updateDocument(idTerm, doc);
-					int after = writer.getDocStats().maxDoc;
-					return Math.abs(after - before);
+					return source.updateDocument(txId, snapshot);
 				}), elTransaction);
 		elTransaction.addTask(futureTask);
 		return futureTask;
@@ -111,19 +89,12 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 		if (entity == null || entity.isEmpty()) {
 			return DONE_FUTURE;
 		}
-		DocFactory<T> docFactory = source.getDocFactory();
-		Query[] queries = entity.stream().map(docFactory::getIdQuery)
-				.toArray(Query[]::new);
+		List<T> snapshot = snapshot(entity);
 		ElTransaction elTransaction = txManager.getElTransaction();
-		List<Document> collect = entity.stream().map(docFactory::createDoc).collect(Collectors.toList());
+		long txId = elTransaction.getXid().getFormatId();
 		TransactionSupportFutureTask futureTask = new TransactionSupportFutureTask(
 				() -> warpResultWithException(() -> {
-					IndexWriter writer = source.getWriter();
-					int before = writer.getDocStats().maxDoc;
-					writer.deleteDocuments(queries);
-					writer.addDocuments(collect);
-					int after = writer.getDocStats().maxDoc;
-					return Math.abs(after - before);
+					return source.replaceDocuments(txId, snapshot);
 				}), elTransaction);
 		elTransaction.addTask(futureTask);
 		return futureTask;
@@ -132,12 +103,14 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 	@Override
 	public Future<Integer> deleteFuture(Query... queries) {
 		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
 		TransactionSupportFutureTask futureTask = new TransactionSupportFutureTask(
 				() -> warpResultWithException(() -> {
-					IndexWriter writer = source.getWriter();
-					writer.deleteDocuments(queries);
+					source.deleteDocuments(txId, queries);
 					TotalHitCountCollector collector = Querys.totalHitsCollector();
-					source.getSearchHolder().getIndexSearcher().search(Querys.compose(queries), collector);
+					try (SearcherLease lease = source.acquire()) {
+						lease.getSearcher().search(Querys.compose(queries), collector);
+					}
 					return collector.getTotalHits();
 				}), elTransaction);
 		elTransaction.addTask(futureTask);
@@ -146,12 +119,7 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 
 	@Override
 	public void insert(T entity) {
-		Document doc = source.getDocFactory().createDoc(entity);
-		txManager.getElTransaction().addTask(
-				() -> warpResultWithException(() -> {
-					source.getWriter().addDocument(doc);
-					return null;
-				}));
+		insert(Collections.singletonList(entity));
 	}
 
 	@Override
@@ -159,30 +127,25 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 		if (entity == null || entity.isEmpty()) {
 			return;
 		}
-		DocFactory<T> docFactory = source.getDocFactory();
-		Query[] queries = entity.stream().map(docFactory::getIdQuery)
-				.toArray(Query[]::new);
-		txManager.getElTransaction().addTask(
+		List<T> snapshot = snapshot(entity);
+		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
+		elTransaction.addTask(
 				() -> warpResultWithException(() -> {
-					IndexWriter writer = source.getWriter();
-					writer.deleteDocuments(queries);
-					writer.addDocuments(entity.stream().map(docFactory::createDoc).collect(Collectors.toList()));
+					source.replaceDocuments(txId, snapshot);
 					return null;
 				}));
 	}
 
 	@Override
 	public void update(T entity) {
-		DocFactory<T> docFactory = source.getDocFactory();
-		Serializable id = docFactory.getId(entity);
-		if (Objects.isNull(id)) {
-			throw EmbeddedLuceneException.of("docId can not been null when update");
-		}
-		Document doc = source.getDocFactory().createDoc(entity);
-		Term idTerm = new Term(docFactory.getIdFieldName(), id.toString());
-		txManager.getElTransaction().addTask(
+		checkId(entity);
+		T snapshot = source.getDocFactory().copy(entity);
+		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
+		elTransaction.addTask(
 				() -> warpResultWithException(() -> {
-					source.getWriter().updateDocument(idTerm, doc);
+					source.updateDocument(txId, snapshot);
 					return null;
 				}));
 	}
@@ -192,61 +155,133 @@ class ElRepositoryImpl<T> implements ElRepository<T> {
 		if (entities == null || entities.isEmpty()) {
 			return;
 		}
-		List<Document> collect = entities.stream().map(source.getDocFactory()::createDoc).collect(Collectors.toList());
-		txManager.getElTransaction().addTask(
+		List<T> snapshot = snapshot(entities);
+		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
+		elTransaction.addTask(
 				() -> warpResultWithException(() -> {
-					source.getWriter().addDocuments(collect);
+					source.addDocuments(txId, snapshot);
 					return null;
 				}));
 	}
 
 	@Override
 	public void delete(Query... queries) {
-		txManager.getElTransaction().addTask(
+		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
+		elTransaction.addTask(
+				() -> warpResultWithException(() -> {
+					source.deleteDocuments(txId, queries);
+					return null;
+				}));
+	}
+
+	@Override
+	public Future<Integer> deleteByIdsFuture(Collection<? extends Serializable> idList) {
+		if (idList == null || idList.isEmpty()) {
+			return DONE_FUTURE;
+		}
+		List<Serializable> ids = new ArrayList<>(idList);
+		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
+		TransactionSupportFutureTask futureTask = new TransactionSupportFutureTask(
+				() -> warpResultWithException(() -> {
+					Query[] queries = source.deleteByIds(txId, ids);
+					TotalHitCountCollector collector = Querys.totalHitsCollector();
+					try (SearcherLease lease = source.acquire()) {
+						lease.getSearcher().search(Querys.compose(queries), collector);
+					}
+					return collector.getTotalHits();
+				}), elTransaction);
+		elTransaction.addTask(futureTask);
+		return futureTask;
+	}
+
+	@Override
+	public void deleteByIds(Collection<? extends Serializable> idList) {
+		if (idList == null || idList.isEmpty()) {
+			return;
+		}
+		List<Serializable> ids = new ArrayList<>(idList);
+		ElTransaction elTransaction = txManager.getElTransaction();
+		long txId = elTransaction.getXid().getFormatId();
+		elTransaction.addTask(
 				() -> warpResultWithException(() -> {
-					source.getWriter().deleteDocuments(queries);
+					source.deleteByIds(txId, ids);
 					return null;
 				}));
 	}
 
+	/**
+	 * 事务提交时才写入索引，调用时复制实体，调用方之后修改实体或复用集合不影响写入的内容
+	 *
+	 * @param entities entities
+	 * @return 副本
+	 */
+	private List<T> snapshot(Collection<T> entities) {
+		DocFactory<T> docFactory = source.getDocFactory();
+		List<T> res = new ArrayList<>(entities.size());
+		for (T entity : entities) {
+			res.add(docFactory.copy(entity));
+		}
+		return res;
+	}
+
+	private void checkId(T entity) {
+		Serializable id = source.getDocFactory().getId(entity);
+		if (Objects.isNull(id)) {
+			throw EmbeddedLuceneException.of("docId can not been null when update");
+		}
+	}
+
 	@Override
 	public TopDocs search(Query query, Sort sort, int topK) {
 		return warpResultWithException(() -> {
-			IndexSearcher searcher = source.getSearchHolder().getIndexSearcher();
-			int maxDoc = searcher.getIndexReader().maxDoc();
-			if (maxDoc <= 0) {
-				return EMPTY_TOP_DOCS;
-			}
+			try (SearcherLease lease = source.acquire()) {
+				IndexSearcher searcher = lease.getSearcher();
+				int maxDoc = searcher.getIndexReader().maxDoc();
+				if (maxDoc <= 0) {
+					return EMPTY_TOP_DOCS;
+				}
 
-			TopDocs topDocs;
-			if (Objects.nonNull(sort)) {
-				topDocs = searcher.search(query, topK <= 0 ? maxDoc : topK, sort);
-			} else {
-				topDocs = searcher.search(query, topK <= 0 ? maxDoc : topK);
+				TopDocs topDocs;
+				int numHits = topK <= 0 ? maxDoc : topK;
+				if (source.getDocFactory().isIndexSortPrefix(sort)) {
+					// 段内文档已按sort排序，每个段收集到numHits个结果即可结束
+					TopFieldCollector collector = TopFieldCollector.create(sort, numHits, numHits);
+					searcher.search(query, collector);
+					topDocs = collector.topDocs();
+				} else if (Objects.nonNull(sort)) {
+					topDocs = searcher.search(query, numHits, sort);
+				} else {
+					topDocs = searcher.search(query, numHits);
+				}
+				return topDocs;
 			}
-			return topDocs;
 		});
 	}
 
 	@Override
 	public TopDocs searchByKeyword(String queryKeyword, String[] queryFields, Map<String, Float> fieldBoostMap, Sort sort) {
 		return warpResultWithException(() -> {
-			IndexSearcher searcher = source.getSearchHolder().getIndexSearcher();
-			int maxDoc = searcher.getIndexReader().maxDoc();
-			if (maxDoc <= 0) {
-				return EMPTY_TOP_DOCS;
-			}
-			TopDocs topDocs = null;
-			final Source<T> source = getSource();
-			Analyzer analyzer = source.getAnalyzer();
-			QueryParser queryParser = new MultiFieldQueryParser(queryFields, analyzer, fieldBoostMap);
-			Query query = queryParser.parse(queryKeyword);
-			if (Objects.nonNull(sort)) {
-				topDocs = searcher.search(query, maxDoc, sort);
-			} else {
-				topDocs = searcher.search(query, maxDoc);
+			try (SearcherLease lease = source.acquire()) {
+				IndexSearcher searcher = lease.getSearcher();
+				int maxDoc = searcher.getIndexReader().maxDoc();
+				if (maxDoc <= 0) {
+					return EMPTY_TOP_DOCS;
+				}
+				TopDocs topDocs = null;
+				final Source<T> source = getSource();
+				Analyzer analyzer = source.getAnalyzer();
+				QueryParser queryParser = new MultiFieldQueryParser(queryFields, analyzer, fieldBoostMap);
+				Query query = queryParser.parse(queryKeyword);
+				if (Objects.nonNull(sort)) {
+					topDocs = searcher.search(query, maxDoc, sort);
+				} else {
+					topDocs = searcher.search(query, maxDoc);
+				}
+				return topDocs;
 			}
-			return topDocs;
 		});
 	}
 
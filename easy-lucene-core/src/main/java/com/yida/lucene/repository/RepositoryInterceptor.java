@@ -27,11 +27,13 @@ import java.util.stream.Collectors;
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.UPDATE, args = {Object.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.UPDATE, args = {Collection.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.DELETE, args = {Query[].class}),
+				@Signature(type = ElRepository.class, method = RepositoryInterceptor.DELETE_BY_IDS, args = {Collection.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.INSERT_FUTURE, args = {Object.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.INSERT_FUTURE, args = {Collection.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.UPDATE_FUTURE, args = {Object.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.UPDATE_FUTURE, args = {Collection.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.DELETE_FUTURE, args = {Query[].class}),
+				@Signature(type = ElRepository.class, method = RepositoryInterceptor.DELETE_BY_IDS_FUTURE, args = {Collection.class}),
 				@Signature(type = ElRepository.class, method = RepositoryInterceptor.SEARCH, args = {Query.class, Sort.class, int.class}),
 		}
 )
@@ -44,6 +46,8 @@ public class RepositoryInterceptor implements Interceptor {
 	public static final String INSERT_FUTURE = "insertFuture";
 	public static final String DELETE_FUTURE = "deleteFuture";
 	public static final String UPDATE_FUTURE = "updateFuture";
+	public static final String DELETE_BY_IDS = "deleteByIds";
+	public static final String DELETE_BY_IDS_FUTURE = "deleteByIdsFuture";
 
 	private List<RepositoryHandler> handlers;
 
@@ -71,6 +75,8 @@ public class RepositoryInterceptor implements Interceptor {
 						break;
 					case DELETE:
 					case DELETE_FUTURE:
+					case DELETE_BY_IDS:
+					case DELETE_BY_IDS_FUTURE:
 						handler.beforeDelete(invocation);
 						if (!handler.willDoDelete(invocation)) {
 							return null;
@@ -100,6 +106,8 @@ public class RepositoryInterceptor implements Interceptor {
 						break;
 					case DELETE:
 					case DELETE_FUTURE:
+					case DELETE_BY_IDS:
+					case DELETE_BY_IDS_FUTURE:
 						handler.afterDelete(invocation);
 						break;
 					case UPDATE:
@@ -121,6 +129,8 @@ public class RepositoryInterceptor implements Interceptor {
 						break;
 					case DELETE:
 					case DELETE_FUTURE:
+					case DELETE_BY_IDS:
+					case DELETE_BY_IDS_FUTURE:
 						handler.exceptionDelete(invocation, e);
 						break;
 					case UPDATE:
@@ -142,6 +152,8 @@ public class RepositoryInterceptor implements Interceptor {
 						break;
 					case DELETE:
 					case DELETE_FUTURE:
+					case DELETE_BY_IDS:
+					case DELETE_BY_IDS_FUTURE:
 						handler.finallyDelete(invocation);
 						break;
 					case UPDATE:
@@ -2,6 +2,7 @@ package com.yida.lucene.repository.handler;
 
 import com.yida.lucene.annotation.LogicDel;
 import com.yida.lucene.bean.Pair;
+import com.yida.lucene.core.DocFactory;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.plugin.Invocation;
 import com.yida.lucene.repository.ElRepository;
@@ -11,7 +12,9 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 
+import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -43,6 +46,13 @@ public class LogicDeleteHandler implements RepositoryHandler {
 		}
 		Field field = logicDel.getKey();
 		Object query = invocation.getArgs()[0];
+		if (query instanceof Collection) {
+			// deleteByIds
+			DocFactory docFactory = repository.getSource().getDocFactory();
+			query = ((Collection<?>) query).stream()
+					.map(id -> docFactory.getIdQuery((Serializable) id))
+					.toArray(Query[]::new);
+		}
 		try {
 			if (query instanceof Query[]) {
 				Query[] queries = (Query[]) query;
@@ -0,0 +1,76 @@
+package com.yida.lucene.repository.query;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * 数值字段查询，按索引实际写入的结构改写<br/>
+ * 所有含该字段的段都有点索引时使用点索引查询，否则(点索引之前写入的旧段未合并或重建)退化为只依赖DocValues的查询，旧索引的结果不会丢失
+ *
+ * @author yida
+ * @date 2024/10/17 10:26
+ */
+final class PointsOrDocValuesQuery extends Query {
+
+	private final String field;
+
+	/**
+	 * 依赖点索引的查询
+	 */
+	private final Query pointsQuery;
+
+	/**
+	 * 只依赖DocValues的查询
+	 */
+	private final Query docValuesQuery;
+
+	PointsOrDocValuesQuery(String field, Query pointsQuery, Query docValuesQuery) {
+		this.field = field;
+		this.pointsQuery = pointsQuery;
+		this.docValuesQuery = docValuesQuery;
+	}
+
+	@Override
+	public Query rewrite(IndexReader reader) throws IOException {
+		for (LeafReaderContext leaf : reader.leaves()) {
+			FieldInfo fieldInfo = leaf.reader().getFieldInfos().fieldInfo(field);
+			if (null != fieldInfo && fieldInfo.getPointDimensionCount() == 0) {
+				return docValuesQuery;
+			}
+		}
+		return pointsQuery;
+	}
+
+	@Override
+	public void visit(QueryVisitor visitor) {
+		QueryVisitor sub = visitor.getSubVisitor(BooleanClause.Occur.MUST, this);
+		pointsQuery.visit(sub);
+	}
+
+	@Override
+	public String toString(String field) {
+		return pointsQuery.toString(field);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!sameClassAs(other)) {
+			return false;
+		}
+		PointsOrDocValuesQuery that = (PointsOrDocValuesQuery) other;
+		return field.equals(that.field) && pointsQuery.equals(that.pointsQuery) && docValuesQuery.equals(that.docValuesQuery);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * classHash() + Objects.hash(field, pointsQuery, docValuesQuery);
+	}
+
+}
@@ -1,21 +1,30 @@
 package com.yida.lucene.repository.query;
 
 import com.yida.lucene.constant.FieldType;
+import com.yida.lucene.constant.IndexFieldTemplate;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.SortedNumericDocValuesField;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.simple.SimpleQueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermInSetQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TermRangeQuery;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.NumericUtils;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -54,6 +63,17 @@ public interface QueryProvider<T> {
 		return negative(like(analyzer, name, value));
 	}
 
+	/**
+	 * 前缀查询，默认不支持
+	 *
+	 * @param name  字段名
+	 * @param value 前缀
+	 * @return Query
+	 */
+	default Query prefix(String name, T value) {
+		throw EmbeddedLuceneException.of("field " + name + " not support prefix query");
+	}
+
 	default Query negative(Query query) {
 		return new BooleanQuery.Builder()
 				.add(query, BooleanClause.Occur.MUST_NOT)
@@ -128,6 +148,67 @@ public interface QueryProvider<T> {
 					FieldType.STRING,
 					stringQueryProvider
 			);
+			HOLDER.put(
+					FieldType.KEYWORD,
+					new QueryProvider<String>() {
+						@Override
+						public Query eq(String name, String value) {
+							return new TermQuery(new Term(name, value));
+						}
+
+						@Override
+						public Query ge(String name, String value) {
+							return range(name, value, null, true, false);
+						}
+
+						@Override
+						public Query le(String name, String value) {
+							return range(name, null, value, false, true);
+						}
+
+						@Override
+						public Query gt(String name, String value) {
+							return range(name, value, null, false, false);
+						}
+
+						@Override
+						public Query lt(String name, String value) {
+							return range(name, null, value, false, false);
+						}
+
+						@Override
+						public Query in(String name, Collection<String> value) {
+							return new TermInSetQuery(name, value.stream().map(BytesRef::new).collect(Collectors.toList()));
+						}
+
+						@Override
+						public Query like(Analyzer analyzer, String name, String value) {
+							throw EmbeddedLuceneException.of("keyword type not support like query, use prefix instead");
+						}
+
+						@Override
+						public Query notLike(Analyzer analyzer, String name, String value) {
+							throw EmbeddedLuceneException.of("keyword type not support notLike query");
+						}
+
+						@Override
+						public Query prefix(String name, String value) {
+							return new PrefixQuery(new Term(name, value));
+						}
+
+						/**
+						 * 按UTF-8字节序比较，与SortedDocValues的排序一致
+						 */
+						private Query range(String name, String lowerValue, String upperValue, boolean includeLower, boolean includeUpper) {
+							BytesRef lower = null == lowerValue ? null : new BytesRef(lowerValue);
+							BytesRef upper = null == upperValue ? null : new BytesRef(upperValue);
+							return new IndexOrDocValuesQuery(
+									new TermRangeQuery(name, lower, upper, includeLower, includeUpper),
+									SortedDocValuesField.newSlowRangeQuery(name, lower, upper, includeLower, includeUpper)
+							);
+						}
+					}
+			);
 			HOLDER.put(
 					FieldType.BOOL,
 					new QueryProvider<Boolean>() {
@@ -181,36 +262,47 @@ public interface QueryProvider<T> {
 			QueryProvider<Long> longQueryProvider = new QueryProvider<Long>() {
 				@Override
 				public Query eq(String name, Long value) {
-					return NumericDocValuesField.newSlowExactQuery(name, value);
+					return range(name, value, value);
 				}
 
 				@Override
 				public Query ge(String name, Long value) {
-					return NumericDocValuesField.newSlowRangeQuery(name, value, Long.MAX_VALUE);
+					return range(name, value, Long.MAX_VALUE);
 				}
 
 				@Override
 				public Query le(String name, Long value) {
-					return NumericDocValuesField.newSlowRangeQuery(name, Long.MIN_VALUE, value);
+					return range(name, Long.MIN_VALUE, value);
 				}
 
 				@Override
 				public Query gt(String name, Long value) {
-					return NumericDocValuesField.newSlowRangeQuery(name, Math.addExact(value, 1), Long.MAX_VALUE);
+					return range(name, Math.addExact(value, 1), Long.MAX_VALUE);
 				}
 
 				@Override
 				public Query lt(String name, Long value) {
-					return NumericDocValuesField.newSlowRangeQuery(name, Long.MIN_VALUE, Math.addExact(value, -1));
+					return range(name, Long.MIN_VALUE, Math.addExact(value, -1));
 				}
 
 				@Override
 				public Query in(String name, Collection<Long> value) {
 					BooleanQuery.Builder builder = new BooleanQuery.Builder();
 					for (Long s : value) {
-						builder.add(eq(name, s), BooleanClause.Occur.SHOULD);
+						builder.add(NumericDocValuesField.newSlowExactQuery(name, s), BooleanClause.Occur.SHOULD);
 					}
-					return builder.build();
+					return new PointsOrDocValuesQuery(name, LongPoint.newSetQuery(name, value), builder.build());
+				}
+
+				/**
+				 * 选择性高时由点索引驱动，作为其他条件的过滤时用doc values逐个校验；索引中有无点索引的旧段时只用doc values
+				 */
+				private Query range(String name, long lowerValue, long upperValue) {
+					Query docValuesQuery = NumericDocValuesField.newSlowRangeQuery(name, lowerValue, upperValue);
+					return new PointsOrDocValuesQuery(name,
+							new IndexOrDocValuesQuery(LongPoint.newRangeQuery(name, lowerValue, upperValue), docValuesQuery),
+							docValuesQuery
+					);
 				}
 
 				@Override
@@ -231,20 +323,7 @@ public interface QueryProvider<T> {
 					FieldType.DATE,
 					new QueryProvider<Object>() {
 						private Long toLong(Object value) {
-							long milliseconds = 0L;
-							if (value instanceof Date) {
-								Date time = (Date) value;
-								milliseconds = time.getTime();
-							} else if (value instanceof LocalDateTime) {
-								LocalDateTime time = (LocalDateTime) value;
-								milliseconds = time.toInstant(ZoneOffset.ofHours(8)).toEpochMilli();
-							} else if (value instanceof LocalDate) {
-								LocalDate time = (LocalDate) value;
-								milliseconds = time.atStartOfDay().toInstant(ZoneOffset.ofHours(8)).toEpochMilli();
-							} else {
-								throw EmbeddedLuceneException.of("data's type:" + value.getClass() + "is not support");
-							}
-							return milliseconds;
+							return IndexFieldTemplate.toEpochMilli(value);
 						}
 
 						@Override
@@ -293,36 +372,44 @@ public interface QueryProvider<T> {
 					new QueryProvider<Integer>() {
 						@Override
 						public Query eq(String name, Integer value) {
-							return NumericDocValuesField.newSlowExactQuery(name, value);
+							return range(name, value, value);
 						}
 
 						@Override
 						public Query ge(String name, Integer value) {
-							return NumericDocValuesField.newSlowRangeQuery(name, value, Integer.MAX_VALUE);
+							return range(name, value, Integer.MAX_VALUE);
 						}
 
 						@Override
 						public Query le(String name, Integer value) {
-							return NumericDocValuesField.newSlowRangeQuery(name, Integer.MIN_VALUE, value);
+							return range(name, Integer.MIN_VALUE, value);
 						}
 
 						@Override
 						public Query gt(String name, Integer value) {
-							return NumericDocValuesField.newSlowRangeQuery(name, Math.addExact(value, 1), Integer.MAX_VALUE);
+							return range(name, Math.addExact(value, 1), Integer.MAX_VALUE);
 						}
 
 						@Override
 						public Query lt(String name, Integer value) {
-							return NumericDocValuesField.newSlowRangeQuery(name, Integer.MIN_VALUE, Math.addExact(value, -1));
+							return range(name, Integer.MIN_VALUE, Math.addExact(value, -1));
 						}
 
 						@Override
 						public Query in(String name, Collection<Integer> value) {
 							BooleanQuery.Builder builder = new BooleanQuery.Builder();
 							for (Integer s : value) {
-								builder.add(eq(name, s), BooleanClause.Occur.SHOULD);
+								builder.add(NumericDocValuesField.newSlowExactQuery(name, s), BooleanClause.Occur.SHOULD);
 							}
-							return builder.build();
+							return new PointsOrDocValuesQuery(name, IntPoint.newSetQuery(name, value), builder.build());
+						}
+
+						private Query range(String name, int lowerValue, int upperValue) {
+							Query docValuesQuery = NumericDocValuesField.newSlowRangeQuery(name, lowerValue, upperValue);
+							return new PointsOrDocValuesQuery(name,
+									new IndexOrDocValuesQuery(IntPoint.newRangeQuery(name, lowerValue, upperValue), docValuesQuery),
+									docValuesQuery
+							);
 						}
 
 						@Override
@@ -336,6 +423,108 @@ public interface QueryProvider<T> {
 						}
 					}
 			);
+			HOLDER.put(
+					FieldType.DOUBLE,
+					new QueryProvider<Double>() {
+						@Override
+						public Query eq(String name, Double value) {
+							return range(name, value, value);
+						}
+
+						@Override
+						public Query ge(String name, Double value) {
+							return range(name, value, Double.POSITIVE_INFINITY);
+						}
+
+						@Override
+						public Query le(String name, Double value) {
+							return range(name, Double.NEGATIVE_INFINITY, value);
+						}
+
+						@Override
+						public Query gt(String name, Double value) {
+							return range(name, Math.nextUp(value), Double.POSITIVE_INFINITY);
+						}
+
+						@Override
+						public Query lt(String name, Double value) {
+							return range(name, Double.NEGATIVE_INFINITY, Math.nextDown(value));
+						}
+
+						@Override
+						public Query in(String name, Collection<Double> value) {
+							return DoublePoint.newSetQuery(name, value);
+						}
+
+						@Override
+						public Query like(Analyzer analyzer, String name, Double value) {
+							throw EmbeddedLuceneException.of("double type not support like query");
+						}
+
+						@Override
+						public Query notLike(Analyzer analyzer, String name, Double value) {
+							throw EmbeddedLuceneException.of("double type not support notLike query");
+						}
+
+						private Query range(String name, double lowerValue, double upperValue) {
+							return new IndexOrDocValuesQuery(
+									DoublePoint.newRangeQuery(name, lowerValue, upperValue),
+									SortedNumericDocValuesField.newSlowRangeQuery(name, NumericUtils.doubleToSortableLong(lowerValue), NumericUtils.doubleToSortableLong(upperValue))
+							);
+						}
+					}
+			);
+			HOLDER.put(
+					FieldType.FLOAT,
+					new QueryProvider<Float>() {
+						@Override
+						public Query eq(String name, Float value) {
+							return range(name, value, value);
+						}
+
+						@Override
+						public Query ge(String name, Float value) {
+							return range(name, value, Float.POSITIVE_INFINITY);
+						}
+
+						@Override
+						public Query le(String name, Float value) {
+							return range(name, Float.NEGATIVE_INFINITY, value);
+						}
+
+						@Override
+						public Query gt(String name, Float value) {
+							return range(name, Math.nextUp(value), Float.POSITIVE_INFINITY);
+						}
+
+						@Override
+						public Query lt(String name, Float value) {
+							return range(name, Float.NEGATIVE_INFINITY, Math.nextDown(value));
+						}
+
+						@Override
+						public Query in(String name, Collection<Float> value) {
+							return FloatPoint.newSetQuery(name, value);
+						}
+
+						@Override
+						public Query like(Analyzer analyzer, String name, Float value) {
+							throw EmbeddedLuceneException.of("float type not support like query");
+						}
+
+						@Override
+						public Query notLike(Analyzer analyzer, String name, Float value) {
+							throw EmbeddedLuceneException.of("float type not support notLike query");
+						}
+
+						private Query range(String name, float lowerValue, float upperValue) {
+							return new IndexOrDocValuesQuery(
+									FloatPoint.newRangeQuery(name, lowerValue, upperValue),
+									SortedNumericDocValuesField.newSlowRangeQuery(name, NumericUtils.floatToSortableInt(lowerValue), NumericUtils.floatToSortableInt(upperValue))
+							);
+						}
+					}
+			);
 		}
 	}
 
@@ -68,6 +68,11 @@ public class Querys {
 		return QueryProvider.getProvider(type).notLike(analyzer, name, data);
 	}
 
+	public Query prefix(FieldType type, String name, Object data) {
+		TypeChecker.getChecker(type).checkThenThrowIfNeed(data);
+		return QueryProvider.getProvider(type).prefix(name, data);
+	}
+
 	public Query in(FieldType type, String name, Collection data) {
 		if (data != null && !data.isEmpty()) {
 			TypeChecker.getChecker(type).checkThenThrowIfNeed(data.iterator().next());
@@ -4,6 +4,7 @@ import com.yida.lucene.util.LambdaUtil;
 import com.yida.lucene.util.SerializableFunction;
 import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.SortedNumericSortField;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -51,7 +52,7 @@ public class Sorts<T> {
 			if (condition) {
 				target.sortChain.add(() -> {
 					String name = LambdaUtil.getFieldName(column);
-					return new SortField(name, type);
+					return sortField(name, type, false);
 				});
 			}
 			return this;
@@ -66,7 +67,7 @@ public class Sorts<T> {
 			if (condition) {
 				target.sortChain.add(() -> {
 					String name = LambdaUtil.getFieldName(column);
-					return new SortField(name, type, true);
+					return sortField(name, type, true);
 				});
 			}
 			return this;
@@ -76,5 +77,15 @@ public class Sorts<T> {
 			return target;
 		}
 
+		/**
+		 * DOUBLE、FLOAT字段以可排序编码写入SortedNumericDocValues，需要使用SortedNumericSortField
+		 */
+		private static SortField sortField(String name, SortField.Type type, boolean reverse) {
+			if (SortField.Type.DOUBLE == type || SortField.Type.FLOAT == type) {
+				return new SortedNumericSortField(name, type, reverse);
+			}
+			return new SortField(name, type, reverse);
+		}
+
 	}
 }
@@ -56,7 +56,7 @@ public abstract class AbstractConditionQueryWrapper<T, C, Q extends AbstractCond
 	@Override
 	public void setSource(Source<T> source) {
 		this.docFactory = source.getDocFactory();
-		this.analyzer = source.getWriter().getAnalyzer();
+		this.analyzer = source.getAnalyzer();
 	}
 
 	@Override
@@ -235,6 +235,18 @@ public abstract class AbstractConditionQueryWrapper<T, C, Q extends AbstractCond
 		return typedThis;
 	}
 
+	@Override
+	public Q prefix(boolean condition, C column, Object value) {
+		if (condition) {
+			queryChain.add(() -> {
+				String name = columnToStr(column);
+				FieldType type = docFactory.getFieldType(name);
+				return Querys.prefix(type, name, value);
+			});
+		}
+		return typedThis;
+	}
+
 	@Override
 	public Query getQuery() {
 		if (queryChain.isEmpty() && custQueries.isEmpty()) {
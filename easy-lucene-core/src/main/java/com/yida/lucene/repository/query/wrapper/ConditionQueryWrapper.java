@@ -87,6 +87,12 @@ public interface ConditionQueryWrapper<T, C, Q extends ConditionQueryWrapper<T,
 		return notLike(true, column, value);
 	}
 
+	Q prefix(boolean condition, C column, Object value);
+
+	default Q prefix(C column, Object value) {
+		return prefix(true, column, value);
+	}
+
 	Q sortAsc(boolean condition, C column, SortField.Type type);
 
 	default Q sortAsc(C column, SortField.Type type) {
@@ -46,6 +46,10 @@ public class ElTransaction implements Transaction {
 		this.status = Status.STATUS_ACTIVE;
 	}
 
+	public ElXid getXid() {
+		return currentXid;
+	}
+
 	public void addTask(Runnable runnable) {
 		composedRunnable.add(runnable);
 	}
@@ -58,6 +62,7 @@ public class ElTransaction implements Transaction {
 		this.status = Status.STATUS_COMMITTING;
 		Runnable runnable = () -> {
 			composedRunnable.run();
+			sourceSet.keySet().forEach(xaSource -> xaSource.prepare(currentXid));
 			sourceSet.keySet().stream()
 					// 并行处理
 					.map(xaSource -> getFuture(() -> xaSource.commit(currentXid, true)))
@@ -85,10 +90,8 @@ public class ElTransaction implements Transaction {
 	@Override
 	public void rollback() {
 		this.status = Status.STATUS_ROLLING_BACK;
-		Runnable runnable = () -> sourceSet.keySet().stream()
-				// 并行处理
-				.map(xaSource -> getFuture(() -> xaSource.rollback(currentXid)))
-				.forEach(CompletableFuture::join);
+		// 在当前线程回滚，其他事务的提交可能占用worker等待本事务回滚
+		Runnable runnable = () -> sourceSet.keySet().forEach(xaSource -> xaSource.rollback(currentXid));
 		timeoutHandle(runnable);
 
 		this.status = Status.STATUS_ROLLEDBACK;
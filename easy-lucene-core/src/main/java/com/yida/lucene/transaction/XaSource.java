@@ -24,6 +24,8 @@ public class XaSource<T> implements XAResource {
 	private final PriorityBlockingQueue<Xid> queue = new PriorityBlockingQueue<>(11, Comparator.comparing(Xid::getFormatId));
 	private final Source<T> delegate;
 	private volatile Xid lastXid;
+	@EqualsAndHashCode.Exclude
+	private final Object turnMonitor = new Object();
 
 	public XaSource(Source<T> delegate) {
 		this.delegate = delegate;
@@ -52,32 +54,44 @@ public class XaSource<T> implements XAResource {
 
 	@Override
 	public void commit(Xid xid, boolean onePhase) {
-		while (true) {
-			try {
-				if (xid.equals(queue.peek())) {
-					queue.take();
-					delegate.commit();
-					return;
-				}
-				Thread.sleep(500L);
-			} catch (InterruptedException e) {
-				throw EmbeddedLuceneException.of(e);
-			}
-		}
+		awaitTurn(xid);
+		delegate.commit(xid.getFormatId());
+	}
+
+	/**
+	 * 事务的操作已全部写入，其他事务的提交不再等待该事务
+	 *
+	 * @param xid xid
+	 * @return XA_OK
+	 */
+	@Override
+	public int prepare(Xid xid) {
+		delegate.prepare(xid.getFormatId());
+		return XA_OK;
 	}
 
 	@Override
 	public void rollback(Xid xid) {
-		while (true) {
+		awaitTurn(xid);
+		delegate.rollback(xid.getFormatId());
+	}
+
+	/**
+	 * 按xid顺序出队，出队后立即唤醒下一个事务，使并发事务能够进入同一个提交组
+	 *
+	 * @param xid xid
+	 */
+	private void awaitTurn(Xid xid) {
+		synchronized (turnMonitor) {
 			try {
-				if (xid.equals(queue.peek())) {
-					queue.take();
-					delegate.rollback();
-					return;
+				while (!xid.equals(queue.peek())) {
+					turnMonitor.wait(500L);
 				}
-				Thread.sleep(500L);
+				queue.take();
 			} catch (InterruptedException e) {
 				throw EmbeddedLuceneException.of(e);
+			} finally {
+				turnMonitor.notifyAll();
 			}
 		}
 	}
@@ -106,11 +120,6 @@ public class XaSource<T> implements XAResource {
 	 * 不支持下列分布式事务特性
 	 */
 
-	@Override
-	public int prepare(Xid xid) {
-		throw EmbeddedLuceneException.of("unsupported operate");
-	}
-
 	@Override
 	public void end(Xid xid, int flags) {
 		throw EmbeddedLuceneException.of("unsupported operate");
@@ -121,6 +121,31 @@ public class ByteUtil {
 		return result;
 	}
 
+	/**
+	 * byte[]转long值<br>
+	 * 自定义端序
+	 *
+	 * @param bytes     byte数组
+	 * @param start     开始位置
+	 * @param byteOrder 端序
+	 * @return long值
+	 */
+	public static long bytesToLong(byte[] bytes, int start, ByteOrder byteOrder) {
+		long values = 0;
+		if (ByteOrder.LITTLE_ENDIAN == byteOrder) {
+			for (int i = (Long.BYTES - 1); i >= 0; i--) {
+				values <<= Byte.SIZE;
+				values |= (bytes[i + start] & 0xff);
+			}
+		} else {
+			for (int i = 0; i < Long.BYTES; i++) {
+				values <<= Byte.SIZE;
+				values |= (bytes[i + start] & 0xff);
+			}
+		}
+		return values;
+	}
+
 	/**
 	 * float转byte数组，自定义端序<br>
 	 *
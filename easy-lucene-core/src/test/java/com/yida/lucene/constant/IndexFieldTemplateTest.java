@@ -0,0 +1,52 @@
+package com.yida.lucene.constant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * DATE类型按配置的时区在LocalDateTime、LocalDate与毫秒时间戳之间往返转换
+ *
+ * @author yida
+ * @date 2024/10/18 10:20
+ */
+class IndexFieldTemplateTest {
+
+	private static final LocalDateTime TIME = LocalDateTime.of(2024, 10, 18, 8, 30, 15, 123_000_000);
+
+	@AfterEach
+	void resetZone() {
+		IndexFieldTemplate.setDateZone(ZoneId.systemDefault());
+	}
+
+	@Test
+	void defaultToSystemZone() {
+		assertEquals(ZoneId.systemDefault(), IndexFieldTemplate.getDateZone());
+		assertEquals(TIME.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), IndexFieldTemplate.toEpochMilli(TIME));
+	}
+
+	@Test
+	void roundTripInConfiguredZone() {
+		IndexFieldTemplate.setDateZone(ZoneOffset.ofHours(8));
+		long millis = IndexFieldTemplate.toEpochMilli(TIME);
+		assertEquals(Instant.parse("2024-10-18T00:30:15.123Z").toEpochMilli(), millis);
+		assertEquals(TIME, FieldType.DATE.get(millis, LocalDateTime.class));
+		assertEquals(TIME, FieldType.DATE.get(FieldType.DATE.format(TIME), LocalDateTime.class));
+
+		LocalDate date = TIME.toLocalDate();
+		assertEquals(Instant.parse("2024-10-17T16:00:00Z").toEpochMilli(), IndexFieldTemplate.toEpochMilli(date));
+		assertEquals(date, FieldType.DATE.get(IndexFieldTemplate.toEpochMilli(date), LocalDate.class));
+
+		IndexFieldTemplate.setDateZone(ZoneId.of("America/New_York"));
+		assertEquals(Instant.parse("2024-10-18T12:30:15.123Z").toEpochMilli(), IndexFieldTemplate.toEpochMilli(TIME));
+		assertEquals(TIME, FieldType.DATE.get(IndexFieldTemplate.toEpochMilli(TIME), LocalDateTime.class));
+	}
+
+}
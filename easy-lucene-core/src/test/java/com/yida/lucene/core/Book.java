@@ -0,0 +1,34 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.annotation.DocField;
+import com.yida.lucene.annotation.DocId;
+import com.yida.lucene.constant.FieldType;
+import lombok.Data;
+
+/**
+ * 测试用实体
+ *
+ * @author yida
+ * @date 2024/10/18 9:30
+ */
+@Data
+public class Book {
+
+	@DocId
+	private Long id;
+
+	@DocField(type = FieldType.LONG)
+	private Long price;
+
+	@DocField(type = FieldType.KEYWORD)
+	private String isbn;
+
+	public static Book of(long id) {
+		Book book = new Book();
+		book.setId(id);
+		book.setPrice(id);
+		book.setIsbn(String.format("isbn-%03d", id));
+		return book;
+	}
+
+}
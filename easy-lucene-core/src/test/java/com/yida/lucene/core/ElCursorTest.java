@@ -0,0 +1,81 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.repository.ElRepository;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 无排序游标按段遍历时，两阶段查询只返回真正匹配的文档
+ *
+ * @author yida
+ * @date 2024/10/18 9:40
+ */
+class ElCursorTest {
+
+	@TempDir
+	Path dir;
+
+	private EmbeddedLucene lucene;
+	private ElRepository<Book> repository;
+
+	@BeforeEach
+	void setUp() {
+		lucene = EmbeddedLucene.create(EmbeddedLuceneConfig.builder()
+				.indexPath(dir.toString())
+				.registerSource(Book.class)
+				.build());
+		lucene.start();
+		repository = ElRepository.get(lucene.getSource(Book.class));
+		List<Book> books = new ArrayList<>();
+		for (long id = 1; id <= 100; id++) {
+			books.add(Book.of(id));
+		}
+		repository.insert(books);
+	}
+
+	@AfterEach
+	void tearDown() {
+		lucene.close();
+	}
+
+	@Test
+	void iterateNumericDocValuesRange() {
+		Query query = NumericDocValuesField.newSlowRangeQuery("price", 10L, 20L);
+		assertEquals(ids(10, 20), iterate(query));
+	}
+
+	@Test
+	void iterateSortedDocValuesRange() {
+		Query query = SortedDocValuesField.newSlowRangeQuery("isbn", new BytesRef("isbn-050"), new BytesRef("isbn-059"), true, false);
+		assertEquals(ids(50, 58), iterate(query));
+	}
+
+	private Set<Long> iterate(Query query) {
+		Set<Long> ids = new TreeSet<>();
+		try (ElCursor<Book> cursor = repository.iterate(query, 3)) {
+			cursor.forEachRemaining(book -> ids.add(book.getId()));
+		}
+		return ids;
+	}
+
+	private static Set<Long> ids(long from, long to) {
+		return LongStream.rangeClosed(from, to).boxed().collect(Collectors.toCollection(TreeSet::new));
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.exception.EmbeddedLuceneException;
+import org.apache.lucene.index.IndexReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 时间点会话数达到上限时拒绝新的会话，关闭或过期的会话归还固定的IndexReader
+ *
+ * @author yida
+ * @date 2024/10/18 11:05
+ */
+class PointInTimeTest {
+
+	private static final int MAX_POINT_IN_TIMES = 2;
+
+	@TempDir
+	Path dir;
+
+	private EmbeddedLucene lucene;
+	private Source<Book> source;
+
+	/**
+	 * 索引没有写入，IndexReader不会被替换
+	 */
+	private IndexReader reader;
+	private int idleRefCount;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		lucene = EmbeddedLucene.create(EmbeddedLuceneConfig.builder()
+				.indexPath(dir.toString())
+				.registerSource(Book.class)
+				.maxPointInTimes(MAX_POINT_IN_TIMES)
+				.build());
+		lucene.start();
+		source = lucene.getSource(Book.class);
+		try (SearcherLease lease = source.acquire()) {
+			reader = lease.getSearcher().getIndexReader();
+		}
+		idleRefCount = reader.getRefCount();
+	}
+
+	@AfterEach
+	void tearDown() {
+		lucene.close();
+	}
+
+	@Test
+	void rejectWhenMaxReachedAndReleaseOnClose() throws IOException {
+		String first = source.openPointInTime(60_000L);
+		source.openPointInTime(60_000L);
+		assertEquals(idleRefCount + MAX_POINT_IN_TIMES, reader.getRefCount());
+		assertThrows(EmbeddedLuceneException.class, () -> source.openPointInTime(60_000L));
+		assertEquals(idleRefCount + MAX_POINT_IN_TIMES, reader.getRefCount());
+
+		source.closePointInTime(first);
+		assertEquals(idleRefCount + 1, reader.getRefCount());
+		assertThrows(EmbeddedLuceneException.class, () -> source.getPointInTime(first));
+		source.openPointInTime(60_000L);
+		assertEquals(idleRefCount + MAX_POINT_IN_TIMES, reader.getRefCount());
+	}
+
+	@Test
+	void reapExpired() throws Exception {
+		String id = source.openPointInTime(100L);
+		assertEquals(idleRefCount + 1, reader.getRefCount());
+		long deadline = System.currentTimeMillis() + 5_000L;
+		while (reader.getRefCount() != idleRefCount && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50L);
+		}
+		assertEquals(idleRefCount, reader.getRefCount());
+		assertThrows(EmbeddedLuceneException.class, () -> source.getPointInTime(id));
+	}
+
+	@Test
+	void closeExpiredBeforeRejecting() throws Exception {
+		source.openPointInTime(100L);
+		source.openPointInTime(100L);
+		Thread.sleep(200L);
+		source.openPointInTime(60_000L);
+		assertEquals(idleRefCount + 1, reader.getRefCount());
+		source.openPointInTime(60_000L);
+		assertEquals(idleRefCount + MAX_POINT_IN_TIMES, reader.getRefCount());
+	}
+
+}
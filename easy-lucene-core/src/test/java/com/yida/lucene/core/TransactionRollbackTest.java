@@ -0,0 +1,104 @@
+package com.yida.lucene.core;
+
+import com.yida.lucene.exception.EmbeddedLuceneException;
+import com.yida.lucene.repository.ElRepository;
+import com.yida.lucene.transaction.ElTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 事务部分写入后失败，期间其他事务的提交不能将其部分写入持久化
+ *
+ * @author yida
+ * @date 2024/10/18 10:20
+ */
+class TransactionRollbackTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void rollbackAfterAnotherTransactionCommits() throws Exception {
+		EmbeddedLucene lucene = start();
+		ElRepository<Book> repository = ElRepository.get(lucene.getSource(Book.class));
+		ElTransactionManager txManager = lucene.getTxManager();
+
+		CountDownLatch enlisted = new CountDownLatch(1);
+		CountDownLatch applied = new CountDownLatch(1);
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		// 先开始的事务，在失败事务部分写入后提交，每次提交都会执行IndexWriter.commit
+		Thread other = new Thread(() -> {
+			try {
+				txManager.begin();
+				repository.insert(Book.of(2));
+				enlisted.countDown();
+				applied.await(10, TimeUnit.SECONDS);
+				txManager.commit();
+			} catch (Throwable e) {
+				error.set(e);
+			}
+		});
+		other.start();
+		assertTrue(enlisted.await(10, TimeUnit.SECONDS));
+
+		txManager.begin();
+		repository.insert(Book.of(1));
+		txManager.getElTransaction().addTask(() -> {
+			applied.countDown();
+			try {
+				other.join(500L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw EmbeddedLuceneException.of("fail after the first write");
+		});
+		assertThrows(EmbeddedLuceneException.class, txManager::commit);
+		txManager.rollback();
+
+		other.join(10_000L);
+		assertFalse(other.isAlive());
+		assertNull(error.get());
+		assertFalse(exists(lucene, 1L));
+		assertTrue(exists(lucene, 2L));
+
+		// 重新打开后部分写入同样不存在
+		lucene.close();
+		lucene = start();
+		try {
+			assertFalse(exists(lucene, 1L));
+			assertTrue(exists(lucene, 2L));
+		} finally {
+			lucene.close();
+		}
+	}
+
+	private EmbeddedLucene start() {
+		EmbeddedLucene lucene = EmbeddedLucene.create(EmbeddedLuceneConfig.builder()
+				.indexPath(dir.toString())
+				.registerSource(Book.class)
+				.workerThreadNum(4)
+				.operationLog(60_000L, 1L)
+				.build());
+		lucene.start();
+		return lucene;
+	}
+
+	private static boolean exists(EmbeddedLucene lucene, long id) throws IOException {
+		Source<Book> source = lucene.getSource(Book.class);
+		try (SearcherLease lease = source.acquire()) {
+			return lease.getSearcher().count(source.getDocFactory().getIdQuery(id)) > 0;
+		}
+	}
+
+}
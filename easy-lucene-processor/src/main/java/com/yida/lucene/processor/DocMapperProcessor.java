@@ -0,0 +1,362 @@
+package com.yida.lucene.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译期为每个含@DocId的实体生成{@code 实体类名 + DocMapper}，DocFactory存在该类时不再反射访问字段<br/>
+ * 使用方式：以provided作用域引入本模块，或加入maven-compiler-plugin的annotationProcessorPaths(与lombok一起时需同时声明lombok)<br/>
+ * 只处理顶层类，private字段按JavaBean规范调用getter/setter，其余字段直接访问；
+ * 缺少可访问的无参构造器或getter/setter(如lombok未在本处理器之前执行)时不生成，运行时退回反射
+ *
+ * @author yida
+ * @date 2024/10/16 10:05
+ */
+public class DocMapperProcessor extends AbstractProcessor {
+
+	private static final String DOC_ID = "com.yida.lucene.annotation.DocId";
+	private static final String DOC_FIELD = "com.yida.lucene.annotation.DocField";
+	private static final String SUFFIX = "DocMapper";
+
+	private final Set<String> generated = new HashSet<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(DOC_ID);
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement docId = processingEnv.getElementUtils().getTypeElement(DOC_ID);
+		if (null == docId) {
+			return false;
+		}
+		Set<TypeElement> entities = new LinkedHashSet<>();
+		for (Element element : roundEnv.getElementsAnnotatedWith(docId)) {
+			Element enclosing = element.getEnclosingElement();
+			if (enclosing.getKind() == ElementKind.CLASS) {
+				entities.add((TypeElement) enclosing);
+			}
+		}
+		for (TypeElement entity : entities) {
+			if (entity.getNestingKind() != NestingKind.TOP_LEVEL) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "skip nested entity, DocMapper is only generated for top level class", entity);
+				continue;
+			}
+			if (generated.add(entity.getQualifiedName().toString())) {
+				generate(entity);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 映射的字段
+	 */
+	private static class MappedField {
+		private String name;
+		private String constant;
+		private String fieldType;
+		private TypeMirror type;
+		private boolean direct;
+		private boolean immutable;
+	}
+
+	private void generate(TypeElement entity) {
+		MappedField id = null;
+		List<MappedField> fields = new ArrayList<>();
+		for (Element element : entity.getEnclosedElements()) {
+			if (element.getKind() != ElementKind.FIELD || element.getModifiers().contains(Modifier.STATIC)) {
+				continue;
+			}
+			AnnotationMirror idMirror = findAnnotation(element, DOC_ID);
+			AnnotationMirror fieldMirror = findAnnotation(element, DOC_FIELD);
+			if (null != idMirror) {
+				id = mappedField((VariableElement) element, idMirror, "LONG");
+			} else if (null != fieldMirror) {
+				fields.add(mappedField((VariableElement) element, fieldMirror, "TEXT"));
+			}
+		}
+		if (null == id) {
+			return;
+		}
+		List<MappedField> all = new ArrayList<>(fields.size() + 1);
+		all.add(id);
+		all.addAll(fields);
+		if (!accessible(entity, all)) {
+			return;
+		}
+
+		String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+		String entityName = entity.getSimpleName().toString();
+		String mapperName = entityName + SUFFIX;
+		String qualifiedName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, entity).openWriter()) {
+			writer.write(source(packageName, entityName, mapperName, all));
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "generate " + qualifiedName + " failed: " + e.getMessage(), entity);
+		}
+	}
+
+	private MappedField mappedField(VariableElement element, AnnotationMirror mirror, String defaultType) {
+		MappedField field = new MappedField();
+		field.name = element.getSimpleName().toString();
+		field.constant = constantName(field.name);
+		field.type = element.asType();
+		field.direct = !element.getModifiers().contains(Modifier.PRIVATE);
+		field.immutable = element.getModifiers().contains(Modifier.FINAL);
+		field.fieldType = defaultType;
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals("type")) {
+				field.fieldType = ((VariableElement) entry.getValue().getValue()).getSimpleName().toString();
+			}
+		}
+		return field;
+	}
+
+	/**
+	 * 生成的代码能否编译：实体可实例化，直接访问的字段非final，其余字段有可访问的getter和setter
+	 */
+	private boolean accessible(TypeElement entity, List<MappedField> fields) {
+		if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+			skip(entity, "entity is abstract");
+			return false;
+		}
+		boolean instantiable = false;
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(entity.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && accessible(entity, constructor)) {
+				instantiable = true;
+				break;
+			}
+		}
+		if (!instantiable) {
+			skip(entity, "entity has no accessible no-arg constructor");
+			return false;
+		}
+		Types types = processingEnv.getTypeUtils();
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity));
+		for (MappedField field : fields) {
+			if (field.direct) {
+				if (field.immutable) {
+					skip(entity, "field " + field.name + " is final");
+					return false;
+				}
+				continue;
+			}
+			String getterName = getterName(field);
+			String setterName = setterName(field);
+			boolean getter = false;
+			boolean setter = false;
+			for (ExecutableElement method : methods) {
+				if (method.getModifiers().contains(Modifier.STATIC) || !accessible(entity, method)) {
+					continue;
+				}
+				if (method.getSimpleName().contentEquals(getterName) && method.getParameters().isEmpty()
+						&& types.isAssignable(method.getReturnType(), field.type)) {
+					getter = true;
+				} else if (method.getSimpleName().contentEquals(setterName) && method.getParameters().size() == 1
+						&& types.isAssignable(field.type, method.getParameters().get(0).asType())) {
+					setter = true;
+				}
+			}
+			if (!getter || !setter) {
+				skip(entity, "private field " + field.name + " has no accessible " + (getter ? setterName : getterName));
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 生成的DocMapper与实体同包，public或非private且声明在同一个包中的成员可以访问
+	 */
+	private boolean accessible(TypeElement entity, Element member) {
+		Set<Modifier> modifiers = member.getModifiers();
+		if (modifiers.contains(Modifier.PUBLIC)) {
+			return true;
+		}
+		if (modifiers.contains(Modifier.PRIVATE)) {
+			return false;
+		}
+		Elements elements = processingEnv.getElementUtils();
+		return elements.getPackageOf(member).equals(elements.getPackageOf(entity));
+	}
+
+	private void skip(TypeElement entity, String reason) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+				"skip generating " + entity.getSimpleName() + SUFFIX + ": " + reason + ", DocFactory falls back to reflection", entity);
+	}
+
+	private String source(String packageName, String entityName, String mapperName, List<MappedField> fields) {
+		StringBuilder sb = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			sb.append("package ").append(packageName).append(";\n\n");
+		}
+		sb.append("import com.yida.lucene.constant.FieldType;\n")
+				.append("import com.yida.lucene.constant.IndexFieldTemplate;\n")
+				.append("import com.yida.lucene.core.DocMapper;\n")
+				.append("import org.apache.lucene.document.Document;\n\n")
+				.append("import java.util.Map;\n\n")
+				.append("/**\n")
+				.append(" * 由").append(DocMapperProcessor.class.getName()).append("生成，请勿修改\n")
+				.append(" */\n")
+				.append("@SuppressWarnings(\"all\")\n")
+				.append("public final class ").append(mapperName).append(" implements DocMapper<").append(entityName).append("> {\n\n");
+
+		for (MappedField field : fields) {
+			sb.append("\tpublic static final String ").append(field.constant).append(" = \"").append(field.name).append("\";\n");
+		}
+		sb.append("\n\tprivate static final String[] FIELD_NAMES = {");
+		for (int i = 0; i < fields.size(); i++) {
+			sb.append(i == 0 ? "" : ", ").append(fields.get(i).constant);
+		}
+		sb.append("};\n");
+
+		sb.append("\n\t@Override\n\tpublic ").append(entityName).append(" newInstance() {\n")
+				.append("\t\treturn new ").append(entityName).append("();\n\t}\n");
+
+		sb.append("\n\t@Override\n\tpublic String[] fieldNames() {\n")
+				.append("\t\treturn FIELD_NAMES.clone();\n\t}\n");
+
+		sb.append("\n\t@Override\n\tpublic Object get(").append(entityName).append(" bean, int index) {\n")
+				.append("\t\tswitch (index) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			sb.append("\t\t\tcase ").append(i).append(":\n")
+					.append("\t\t\t\treturn ").append(getter(fields.get(i))).append(";\n");
+		}
+		sb.append("\t\t\tdefault:\n")
+				.append("\t\t\t\tthrow new IndexOutOfBoundsException(String.valueOf(index));\n")
+				.append("\t\t}\n\t}\n");
+
+		sb.append("\n\t@Override\n\tpublic void set(").append(entityName).append(" bean, int index, Object value) {\n")
+				.append("\t\tswitch (index) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			MappedField field = fields.get(i);
+			sb.append("\t\t\tcase ").append(i).append(":\n");
+			if (field.type.getKind().isPrimitive()) {
+				sb.append("\t\t\t\tif (null != value) {\n")
+						.append("\t\t\t\t\t").append(setter(field, "(" + boxedName(field) + ") value")).append(";\n")
+						.append("\t\t\t\t}\n");
+			} else {
+				sb.append("\t\t\t\t").append(setter(field, "(" + boxedName(field) + ") value")).append(";\n");
+			}
+			sb.append("\t\t\t\tbreak;\n");
+		}
+		sb.append("\t\t\tdefault:\n")
+				.append("\t\t\t\tthrow new IndexOutOfBoundsException(String.valueOf(index));\n")
+				.append("\t\t}\n\t}\n");
+
+		sb.append("\n\t@Override\n\tpublic void fill(").append(entityName).append(" bean, IndexFieldTemplate[] templates, Document document) {\n");
+		for (int i = 0; i < fields.size(); i++) {
+			sb.append("\t\ttemplates[").append(i).append("].fill(").append(getter(fields.get(i))).append(", document);\n");
+		}
+		sb.append("\t}\n");
+
+		sb.append("\n\t@Override\n\tpublic ").append(entityName).append(" toJavaBean(Map<String, String> map) {\n")
+				.append("\t\t").append(entityName).append(" bean = new ").append(entityName).append("();\n")
+				.append("\t\tString value;\n");
+		for (MappedField field : fields) {
+			String converted = "(" + boxedName(field) + ") FieldType." + field.fieldType + ".get(value, " + erasedName(field) + ".class)";
+			sb.append("\t\tif (null != (value = map.get(").append(field.constant).append("))) {\n")
+					.append("\t\t\t").append(setter(field, converted)).append(";\n")
+					.append("\t\t}\n");
+		}
+		sb.append("\t\treturn bean;\n\t}\n\n}\n");
+		return sb.toString();
+	}
+
+	private String getter(MappedField field) {
+		if (field.direct) {
+			return "bean." + field.name;
+		}
+		return "bean." + getterName(field) + "()";
+	}
+
+	private String setter(MappedField field, String value) {
+		if (field.direct) {
+			return "bean." + field.name + " = " + value;
+		}
+		return "bean." + setterName(field) + "(" + value + ")";
+	}
+
+	private static String getterName(MappedField field) {
+		String prefix = field.type.getKind() == TypeKind.BOOLEAN ? "is" : "get";
+		return prefix + capitalize(field.name);
+	}
+
+	private static String setterName(MappedField field) {
+		return "set" + capitalize(field.name);
+	}
+
+	private String erasedName(MappedField field) {
+		return processingEnv.getTypeUtils().erasure(field.type).toString();
+	}
+
+	private String boxedName(MappedField field) {
+		if (field.type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType) field.type).getQualifiedName().toString();
+		}
+		return erasedName(field);
+	}
+
+	private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+				return mirror;
+			}
+		}
+		return null;
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * 驼峰转常量名，如abContent => AB_CONTENT
+	 */
+	private static String constantName(String name) {
+		StringBuilder sb = new StringBuilder(name.length() + 4);
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c) && i > 0) {
+				sb.append('_');
+			}
+			sb.append(Character.toUpperCase(c));
+		}
+		return sb.toString();
+	}
+
+}
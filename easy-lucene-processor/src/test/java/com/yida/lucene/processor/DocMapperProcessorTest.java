@@ -0,0 +1,214 @@
+package com.yida.lucene.processor;
+
+import com.yida.lucene.core.DocFactory;
+import com.yida.lucene.core.DocMapper;
+import org.apache.lucene.document.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 通过JavaCompiler编译示例实体，校验生成的DocMapper可以编译并正确读写字段、reuseDoc使用生成的fill，无法生成时跳过且不影响编译
+ *
+ * @author yida
+ * @date 2024/10/17 15:40
+ */
+class DocMapperProcessorTest {
+
+	private static final String IMPORTS = "package sample;\n\n"
+			+ "import com.yida.lucene.annotation.DocField;\n"
+			+ "import com.yida.lucene.annotation.DocId;\n"
+			+ "import com.yida.lucene.constant.FieldType;\n\n";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void generateMapperForJavaBean() throws Exception {
+		Compilation compilation = compile("Article", IMPORTS
+				+ "public class Article {\n"
+				+ "\t@DocId\n"
+				+ "\tprivate Long id;\n"
+				+ "\t@DocField(type = FieldType.STRING)\n"
+				+ "\tprivate String title;\n"
+				+ "\t@DocField(type = FieldType.INT)\n"
+				+ "\tint views;\n"
+				+ "\t@DocField(type = FieldType.BOOL)\n"
+				+ "\tprivate boolean top;\n"
+				+ "\tpublic static String titleReader;\n"
+				+ "\tpublic Long getId() { return id; }\n"
+				+ "\tpublic void setId(Long id) { this.id = id; }\n"
+				+ "\tpublic String getTitle() {\n"
+				+ "\t\ttitleReader = new Throwable().getStackTrace()[1].getMethodName();\n"
+				+ "\t\treturn title;\n"
+				+ "\t}\n"
+				+ "\tpublic void setTitle(String title) { this.title = title; }\n"
+				+ "\tpublic boolean isTop() { return top; }\n"
+				+ "\tpublic void setTop(boolean top) { this.top = top; }\n"
+				+ "}\n");
+		assertTrue(compilation.success, compilation.messages());
+		assertTrue(Files.exists(compilation.generated("ArticleDocMapper")), "ArticleDocMapper not generated");
+
+		try (URLClassLoader loader = compilation.classLoader()) {
+			DocMapper<Object> mapper = (DocMapper<Object>) loader.loadClass("sample.ArticleDocMapper").getDeclaredConstructor().newInstance();
+			assertArrayEquals(new String[]{"id", "title", "views", "top"}, mapper.fieldNames());
+
+			Map<String, String> map = new HashMap<>();
+			map.put("id", "7");
+			map.put("title", "hello");
+			map.put("views", "42");
+			map.put("top", "true");
+			Object bean = mapper.toJavaBean(map);
+			assertEquals(7L, mapper.get(bean, 0));
+			assertEquals("hello", mapper.get(bean, 1));
+			assertEquals(42, mapper.get(bean, 2));
+			assertEquals(true, mapper.get(bean, 3));
+
+			mapper.set(bean, 2, null);
+			assertEquals(42, mapper.get(bean, 2), "null must not overwrite a primitive field");
+
+			// 写入路径的reuseDoc应直接调用生成的fill，而不是经由get(bean, index)
+			Class<Object> articleClass = (Class<Object>) loader.loadClass("sample.Article");
+			Constructor<Object> constructor = articleClass.getConstructor();
+			DocFactory<Object> docFactory = DocFactory.getDocFactory(articleClass, constructor);
+			Document document = docFactory.reuseDoc(bean);
+			assertEquals("fill", articleClass.getField("titleReader").get(null));
+			assertEquals("7", document.get("id"));
+			assertEquals("hello", document.get("title"));
+			assertEquals("true", document.get("top"));
+		}
+	}
+
+	@Test
+	void skipEntityWithoutSetter() throws IOException {
+		Compilation compilation = compile("NoSetter", IMPORTS
+				+ "public class NoSetter {\n"
+				+ "\t@DocId\n"
+				+ "\tprivate Long id;\n"
+				+ "\t@DocField\n"
+				+ "\tprivate String content;\n"
+				+ "\tpublic Long getId() { return id; }\n"
+				+ "\tpublic void setId(Long id) { this.id = id; }\n"
+				+ "\tpublic String getContent() { return content; }\n"
+				+ "}\n");
+		assertSkipped(compilation, "NoSetterDocMapper", "setContent");
+	}
+
+	@Test
+	void skipEntityWithPrivateConstructor() throws IOException {
+		Compilation compilation = compile("Hidden", IMPORTS
+				+ "public class Hidden {\n"
+				+ "\t@DocId\n"
+				+ "\tLong id;\n"
+				+ "\tprivate Hidden() {\n"
+				+ "\t}\n"
+				+ "}\n");
+		assertSkipped(compilation, "HiddenDocMapper", "no-arg constructor");
+	}
+
+	@Test
+	void skipEntityWithFinalField() throws IOException {
+		Compilation compilation = compile("Frozen", IMPORTS
+				+ "public class Frozen {\n"
+				+ "\t@DocId\n"
+				+ "\tLong id;\n"
+				+ "\t@DocField\n"
+				+ "\tfinal String content = \"\";\n"
+				+ "}\n");
+		assertSkipped(compilation, "FrozenDocMapper", "final");
+	}
+
+	private static void assertSkipped(Compilation compilation, String mapperName, String reason) {
+		assertTrue(compilation.success, compilation.messages());
+		assertFalse(Files.exists(compilation.generated(mapperName)), mapperName + " should not be generated");
+		assertTrue(compilation.notes().contains(reason), compilation.messages());
+	}
+
+	private Compilation compile(String className, String source) throws IOException {
+		Path sourceDir = Files.createDirectories(dir.resolve("src/sample"));
+		Path sourceFile = sourceDir.resolve(className + ".java");
+		Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+		Path generatedDir = Files.createDirectories(dir.resolve("generated"));
+		Path classDir = Files.createDirectories(dir.resolve("classes"));
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			List<String> options = Arrays.asList(
+					"-classpath", System.getProperty("java.class.path"),
+					"-d", classDir.toString(),
+					"-s", generatedDir.toString()
+			);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjects(sourceFile.toFile()));
+			task.setProcessors(Collections.singletonList(new DocMapperProcessor()));
+			boolean success = task.call();
+			return new Compilation(success, diagnostics.getDiagnostics(), generatedDir, classDir);
+		}
+	}
+
+	private static final class Compilation {
+		private final boolean success;
+		private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+		private final Path generatedDir;
+		private final Path classDir;
+
+		private Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path generatedDir, Path classDir) {
+			this.success = success;
+			this.diagnostics = diagnostics;
+			this.generatedDir = generatedDir;
+			this.classDir = classDir;
+		}
+
+		private Path generated(String simpleName) {
+			return generatedDir.resolve("sample").resolve(simpleName + ".java");
+		}
+
+		private URLClassLoader classLoader() throws IOException {
+			return new URLClassLoader(new URL[]{classDir.toUri().toURL()}, DocMapperProcessorTest.class.getClassLoader());
+		}
+
+		private String notes() {
+			StringBuilder sb = new StringBuilder();
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+				if (diagnostic.getKind() == Diagnostic.Kind.NOTE) {
+					sb.append(diagnostic.getMessage(null)).append('\n');
+				}
+			}
+			return sb.toString();
+		}
+
+		private String messages() {
+			StringBuilder sb = new StringBuilder();
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+				sb.append(diagnostic.getKind()).append(": ").append(diagnostic.getMessage(null)).append('\n');
+			}
+			return sb.toString();
+		}
+	}
+
+}
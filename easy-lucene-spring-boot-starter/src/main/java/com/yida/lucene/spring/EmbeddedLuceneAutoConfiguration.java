@@ -1,6 +1,7 @@
 package com.yida.lucene.spring;
 
 import com.yida.lucene.core.EmbeddedLucene;
+import com.yida.lucene.core.SearcherWarmer;
 import com.yida.lucene.repository.handler.AutoFillHandler;
 import com.yida.lucene.repository.handler.DefaultAutoFillValProvider;
 import com.yida.lucene.repository.handler.LogHandler;
@@ -140,13 +141,15 @@ public class EmbeddedLuceneAutoConfiguration implements EnvironmentAware {
 	@ConditionalOnMissingBean(SpringEmbeddedLucene.class)
 	public SpringEmbeddedLucene springEmbeddedLucene(List<RepositoryHandler> handlers,
 													 Map<String, Analyzer> analyzers,
-													 @Nullable FieldTypeAnalyzerMapper fieldTypeAnalyzerMapper) {
+													 @Nullable FieldTypeAnalyzerMapper fieldTypeAnalyzerMapper,
+													 @Nullable Map<String, SearcherWarmer> warmers) {
 		return new SpringEmbeddedLucene(
 				SpringEmbeddedLucene.buildConfig(
 						properties,
 						handlers,
 						fieldTypeAnalyzerMapper,
-						analyzers
+						analyzers,
+						warmers
 				)
 		);
 	}
@@ -1,9 +1,12 @@
 package com.yida.lucene.spring;
 
+import com.yida.lucene.core.IndexWriterOptions;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -43,4 +46,89 @@ public class EmbeddedLuceneProperties {
 	 * IK分词器是否开启Smart智能分词模式,默认不开启
 	 */
 	private boolean ikUseSmart;
+
+	/**
+	 * 近实时搜索最大允许的数据延迟(毫秒)
+	 */
+	private long maxStaleMillis = 100L;
+
+	/**
+	 * 懒加载文档持有IndexReader的最长时间(毫秒)
+	 */
+	private long lazyDocumentKeepAliveMillis = 10_000L;
+
+	/**
+	 * 每个实体最多同时打开的时间点会话数
+	 */
+	private int maxPointInTimes = 1000;
+
+	/**
+	 * 组提交窗口(毫秒)，0表示每个事务单独提交
+	 */
+	private long groupCommitWindowMillis = 0L;
+
+	/**
+	 * 组提交最大事务数
+	 */
+	private int groupCommitMaxBatch = 32;
+
+	/**
+	 * 是否开启操作日志，开启后事务提交只fsync操作日志，索引按时间或日志大小提交
+	 */
+	private boolean operationLogEnabled;
+
+	/**
+	 * 开启操作日志时索引提交的间隔(毫秒)
+	 */
+	private long flushIntervalMillis = 5000L;
+
+	/**
+	 * 开启操作日志时触发索引提交的日志大小(字节)
+	 */
+	private long flushThresholdBytes = 64L * 1024 * 1024;
+
+	/**
+	 * 是否延迟打开索引，开启后实体的索引在第一次读写时才打开
+	 */
+	private boolean lazySourceOpen;
+
+	/**
+	 * 索引发布目录，设置后作为leader定时发布最新的提交
+	 */
+	private String replicationPublishPath;
+
+	/**
+	 * leader的索引发布目录，设置后作为follower只读打开索引并定时复制新的段文件
+	 */
+	private String replicationFollowPath;
+
+	/**
+	 * leader发布或follower拉取的间隔(毫秒)
+	 */
+	private long replicationIntervalMillis = 1000L;
+
+	/**
+	 * 是否只读附加到由其他进程写入的索引
+	 */
+	private boolean readOnlyAttach;
+
+	/**
+	 * 只读附加时检查新提交的间隔(毫秒)
+	 */
+	private long readOnlyRefreshIntervalMillis = 1000L;
+
+	/**
+	 * DATE类型LocalDateTime、LocalDate的时区，如 Asia/Shanghai、+08:00，为空时使用系统时区
+	 */
+	private String dateZone;
+
+	/**
+	 * 全局IndexWriter调优参数，如 embedded-lucene.index-writer.ram-buffer-size-mb=64
+	 */
+	private IndexWriterOptions indexWriter = new IndexWriterOptions();
+
+	/**
+	 * 文档类全限定名 => IndexWriter调优参数，覆盖全局参数，如 embedded-lucene.index-writers[com.example.User].use-compound-file=false
+	 */
+	private Map<String, IndexWriterOptions> indexWriters = new HashMap<>();
 }
@@ -1,8 +1,12 @@
 package com.yida.lucene.spring;
 
+import com.yida.lucene.constant.DirectoryType;
 import com.yida.lucene.constant.FieldType;
+import com.yida.lucene.core.DirectoryProvider;
 import com.yida.lucene.core.EmbeddedLucene;
 import com.yida.lucene.core.EmbeddedLuceneConfig;
+import com.yida.lucene.core.IndexWriterOptions;
+import com.yida.lucene.core.SearcherWarmer;
 import com.yida.lucene.exception.EmbeddedLuceneException;
 import com.yida.lucene.repository.handler.RepositoryHandler;
 import com.yida.lucene.spring.annotation.ElEntity;
@@ -10,6 +14,7 @@ import com.yida.lucene.spring.util.AnnotationScanner;
 import org.apache.lucene.analysis.Analyzer;
 import org.springframework.beans.factory.DisposableBean;
 
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -20,6 +25,9 @@ import java.util.Objects;
  */
 public class SpringEmbeddedLucene extends EmbeddedLucene implements DisposableBean {
 
+	private static final double NRT_CACHING_MAX_MERGE_SIZE_MB = 5.0;
+	private static final double NRT_CACHING_MAX_CACHED_MB = 60.0;
+
 	public SpringEmbeddedLucene(EmbeddedLuceneConfig config) {
 		super(config);
 		this.start();
@@ -29,7 +37,8 @@ public class SpringEmbeddedLucene extends EmbeddedLucene implements DisposableBe
 			EmbeddedLuceneProperties embeddedLuceneProperties,
 			List<RepositoryHandler> handlers,
 			FieldTypeAnalyzerMapper fieldTypeAnalyzerMapper,
-			Map<String, Analyzer> analyzers
+			Map<String, Analyzer> analyzers,
+			Map<String, SearcherWarmer> warmers
 	) {
 		boolean ikUseSmart = embeddedLuceneProperties.isIkUseSmart();
 		Map<Class<?>, ElEntity> classElEntityMap = AnnotationScanner.scanAnno(embeddedLuceneProperties.getEntityPackages(), ElEntity.class);
@@ -37,7 +46,28 @@ public class SpringEmbeddedLucene extends EmbeddedLucene implements DisposableBe
 		EmbeddedLuceneConfig.Builder configBuilder = EmbeddedLuceneConfig.builder()
 				.workerThreadNum(embeddedLuceneProperties.getWorkerThreadNum())
 				.indexPath(embeddedLuceneProperties.getIndexPath())
+				.maxStaleMillis(embeddedLuceneProperties.getMaxStaleMillis())
+				.lazyDocumentKeepAliveMillis(embeddedLuceneProperties.getLazyDocumentKeepAliveMillis())
+				.maxPointInTimes(embeddedLuceneProperties.getMaxPointInTimes())
+				.groupCommit(embeddedLuceneProperties.getGroupCommitWindowMillis(), embeddedLuceneProperties.getGroupCommitMaxBatch())
+				.indexWriterOptions(embeddedLuceneProperties.getIndexWriter())
+				.lazySourceOpen(embeddedLuceneProperties.isLazySourceOpen())
 				.repositoryHandler(handlers);
+		if (null != embeddedLuceneProperties.getReplicationPublishPath()) {
+			configBuilder.replicationPublish(embeddedLuceneProperties.getReplicationPublishPath(), embeddedLuceneProperties.getReplicationIntervalMillis());
+		}
+		if (null != embeddedLuceneProperties.getReplicationFollowPath()) {
+			configBuilder.replicationFollow(embeddedLuceneProperties.getReplicationFollowPath(), embeddedLuceneProperties.getReplicationIntervalMillis());
+		}
+		if (embeddedLuceneProperties.isReadOnlyAttach()) {
+			configBuilder.readOnlyAttach(embeddedLuceneProperties.getReadOnlyRefreshIntervalMillis());
+		}
+		if (null != embeddedLuceneProperties.getDateZone() && !embeddedLuceneProperties.getDateZone().isEmpty()) {
+			configBuilder.dateZone(ZoneId.of(embeddedLuceneProperties.getDateZone()));
+		}
+		if (embeddedLuceneProperties.isOperationLogEnabled()) {
+			configBuilder.operationLog(embeddedLuceneProperties.getFlushIntervalMillis(), embeddedLuceneProperties.getFlushThresholdBytes());
+		}
 		Map<FieldType, Analyzer> fieldTypeAnalyzerMap = fieldTypeAnalyzerMapper.get();
 		if (null != fieldTypeAnalyzerMap) {
 			//fieldTypeAnalyzerMap.forEach(configBuilder::fieldTypeAnalyzer);
@@ -71,6 +101,28 @@ public class SpringEmbeddedLucene extends EmbeddedLucene implements DisposableBe
 			} else {
 				configBuilder.registerSource(entity, docName);
 			}
+			String warmerBeanName = elEntity.warmerBeanName();
+			if (!warmerBeanName.isEmpty()) {
+				SearcherWarmer warmer = null == warmers ? null : warmers.get(warmerBeanName);
+				if (Objects.isNull(warmer)) {
+					throw EmbeddedLuceneException.of("SearcherWarmer bean:[" + warmerBeanName + "] of Entity:[" + entityClassName + "] not found.");
+				}
+				configBuilder.registerWarmer(entity, warmer);
+			}
+			if (elEntity.shards() > 1) {
+				configBuilder.shards(entity, elEntity.shards());
+			}
+			if (elEntity.directory() != DirectoryType.AUTO || elEntity.nrtCaching()) {
+				DirectoryProvider directoryProvider = DirectoryProvider.of(elEntity.directory(), elEntity.preload());
+				if (elEntity.nrtCaching()) {
+					directoryProvider = directoryProvider.nrtCaching(NRT_CACHING_MAX_MERGE_SIZE_MB, NRT_CACHING_MAX_CACHED_MB);
+				}
+				configBuilder.directory(entity, directoryProvider);
+			}
+			IndexWriterOptions indexWriterOptions = embeddedLuceneProperties.getIndexWriters().get(entityClassName);
+			if (Objects.nonNull(indexWriterOptions)) {
+				configBuilder.indexWriterOptions(entity, indexWriterOptions);
+			}
 		}
 		return configBuilder.build();
 	}
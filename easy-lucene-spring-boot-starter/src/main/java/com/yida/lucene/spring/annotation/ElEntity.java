@@ -1,5 +1,6 @@
 package com.yida.lucene.spring.annotation;
 
+import com.yida.lucene.constant.DirectoryType;
 import org.springframework.core.annotation.AliasFor;
 
 import java.lang.annotation.Documented;
@@ -35,4 +36,31 @@ public @interface ElEntity {
 	 * Field对应的分词器映射JSON文件路径
 	 */
 	String analyzerMappingJSONFilePath() default "";
+
+	/**
+	 * IndexSearcher预热器的beanName
+	 *
+	 * @see com.yida.lucene.core.SearcherWarmer
+	 */
+	String warmerBeanName() default "";
+
+	/**
+	 * 分片数，按id的hash分到多个IndexWriter，索引创建后不能修改
+	 */
+	int shards() default 1;
+
+	/**
+	 * 索引目录类型
+	 */
+	DirectoryType directory() default DirectoryType.AUTO;
+
+	/**
+	 * MMAP目录是否在打开文件时预加载到内存
+	 */
+	boolean preload() default false;
+
+	/**
+	 * 是否使用NRTCachingDirectory缓存较小的新段
+	 */
+	boolean nrtCaching() default false;
 }